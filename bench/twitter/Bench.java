@@ -0,0 +1,70 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+
+/**
+ * Minimal measurement harness shared by the benchmarks in this folder. Runs an
+ * operation through warmup and measurement rounds and reports throughput and
+ * bytes allocated by the calling thread.
+ *
+ * Run benchmarks with assertions disabled, e.g. java -cp ... twitter.TweetReaderBenchmark
+ */
+class Bench {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /*
+     * Folds in every result so that the JIT cannot discard the measured work.
+     */
+    private static volatile int sink;
+
+    private Bench() {
+    }
+
+    /**
+     * Measure an operation and print one line of results.
+     *
+     * @param name
+     *            label for the results line
+     * @param unitsPerOp
+     *            number of units (e.g. tweets) processed by one call of op,
+     *            used to report per-unit allocation
+     * @param op
+     *            operation to measure; its result is consumed so it is not
+     *            optimized away
+     */
+    static void measure(String name, long unitsPerOp, Callable<?> op) {
+        try {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                consume(op.call());
+            }
+            long threadId = Thread.currentThread().getId();
+            long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                consume(op.call());
+            }
+            long elapsed = System.nanoTime() - start;
+            long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+            double opsPerSecond = MEASURED_ROUNDS * 1e9 / elapsed;
+            double bytesPerOp = (double) bytes / MEASURED_ROUNDS;
+            System.out.printf("%-40s %12.2f ops/s %14.0f B/op %10.1f B/unit%n",
+                    name, opsPerSecond, bytesPerOp, bytesPerOp / unitsPerOp);
+        } catch (Exception e) {
+            throw new RuntimeException(name + " failed", e);
+        }
+    }
+
+    private static void consume(Object result) {
+        sink ^= System.identityHashCode(result);
+    }
+}
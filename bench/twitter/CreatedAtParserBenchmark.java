@@ -0,0 +1,52 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compares created_at parsing as TweetReader does it (a new formatter per
+ * tweet, then ZonedDateTime) against a shared formatter and CreatedAtParser.
+ */
+public class CreatedAtParserBenchmark {
+
+    private static final int VALUES = 100_000;
+
+    public static void main(String[] args) {
+        String[] values = new String[VALUES];
+        Random random = new Random(6005);
+        for (int i = 0; i < VALUES; i++) {
+            Instant instant = Instant.ofEpochSecond(1_400_000_000L + random.nextInt(200_000_000));
+            values[i] = ZonedDateTime.ofInstant(instant, ZoneOffset.UTC).format(CreatedAtParser.FORMAT);
+        }
+
+        Bench.measure("new formatter per value", VALUES, () -> {
+            long sum = 0;
+            for (String value : values) {
+                sum += ZonedDateTime.parse(value,
+                        DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss Z yyyy", Locale.US)).toInstant().getEpochSecond();
+            }
+            return sum;
+        });
+        Bench.measure("shared formatter", VALUES, () -> {
+            long sum = 0;
+            for (String value : values) {
+                sum += ZonedDateTime.parse(value, CreatedAtParser.FORMAT).toInstant().getEpochSecond();
+            }
+            return sum;
+        });
+        Bench.measure("CreatedAtParser.parseEpochSecond", VALUES, () -> {
+            long sum = 0;
+            for (String value : values) {
+                sum += CreatedAtParser.parseEpochSecond(value);
+            }
+            return sum;
+        });
+    }
+}
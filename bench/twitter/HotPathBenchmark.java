@@ -0,0 +1,89 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Throughput and allocation of every public operation of Extract, Filter,
+ * SocialNetwork and TweetReader on a TweetCorpusGenerator corpus with uniform
+ * authors and mentions, and of Main's report computed by separate passes and
+ * by TweetAnalysis.
+ *
+ * Usage: java -cp ... twitter.HotPathBenchmark [size [authors [mentionsPerTweet [keywordHitRate]]]]
+ * with defaults 100000 tweets, 5000 authors, 1.5 mentions per tweet and a
+ * keyword hit rate of 0.05. TweetReader parses at most JSON_TWEETS of them.
+ */
+public class HotPathBenchmark {
+
+    private static final int JSON_TWEETS = 20_000;
+    private static final long SEED = 6005;
+
+    /*
+     * Word planted in a fraction keywordHitRate of the tweets, for
+     * benchmarking containing().
+     */
+    private static final String KEYWORD = "rivest";
+
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int authors = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        double mentionsPerTweet = args.length > 2 ? Double.parseDouble(args[2]) : 1.5;
+        double keywordHitRate = args.length > 3 ? Double.parseDouble(args[3]) : 0.05;
+        System.out.printf("corpus: %d tweets, %d authors, %.2f mentions/tweet, %.2f keyword hit rate%n",
+                size, authors, mentionsPerTweet, keywordHitRate);
+
+        List<Tweet> tweets = new TweetCorpusGenerator(SEED).withUsers(authors, 0).withText(mentionsPerTweet, 0)
+                .withKeyword(KEYWORD, keywordHitRate).tweets(size).collect(Collectors.toList());
+        Timespan middleHalf = new Timespan(tweets.get(size / 4).getTimestamp(),
+                tweets.get(3 * size / 4).getTimestamp());
+        List<String> keywords = Arrays.asList(KEYWORD, "absent");
+        Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
+        Map<String, Set<String>> hashGraph = new HashMap<>();
+        for (Map.Entry<String, Set<String>> entry : followsGraph.entrySet()) {
+            hashGraph.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        }
+
+        Bench.measure("Extract.getTimespan", size, () -> Extract.getTimespan(tweets));
+        Bench.measure("Extract.getMentionedUsers", size, () -> Extract.getMentionedUsers(tweets));
+        Bench.measure("Filter.writtenBy", size, () -> Filter.writtenBy(tweets, TweetCorpusGenerator.username(0)));
+        Bench.measure("Filter.inTimespan", size, () -> Filter.inTimespan(tweets, middleHalf));
+        Bench.measure("Filter.containing", size, () -> Filter.containing(tweets, keywords));
+        Bench.measure("SocialNetwork.guessFollowsGraph", size, () -> SocialNetwork.guessFollowsGraph(tweets));
+        Bench.measure("SocialNetwork.influencers (graph view)", followsGraph.size(),
+                () -> SocialNetwork.influencers(followsGraph));
+        Bench.measure("SocialNetwork.influencers (HashMap)", hashGraph.size(),
+                () -> SocialNetwork.influencers(hashGraph));
+        Bench.measure("Main's report, separate passes", size, () -> {
+            Extract.getTimespan(tweets);
+            Extract.getMentionedUsers(tweets);
+            return SocialNetwork.influencers(SocialNetwork.guessFollowsGraph(tweets), 10);
+        });
+        Bench.measure("Main's report, TweetAnalysis.of", size, () -> TweetAnalysis.of(tweets).influencers(10));
+
+        List<Tweet> jsonTweets = tweets.subList(0, Math.min(size, JSON_TWEETS));
+        Path file = Files.createTempFile("tweets", ".json");
+        try {
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                TweetCorpusGenerator.writeJson(jsonTweets.iterator(), out);
+            }
+            URL url = file.toUri().toURL();
+            Bench.measure("TweetReader.readTweetsFromWeb", jsonTweets.size(), () -> TweetReader.readTweetsFromWeb(url));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the per-keyword lowercase-and-contains loop that Filter.containing
+ * used against KeywordMatcher, for a watchlist of thousands of terms.
+ */
+public class KeywordMatcherBenchmark {
+
+    private static final int TWEETS = 20_000;
+    private static final int KEYWORDS = 5_000;
+
+    public static void main(String[] args) {
+        List<String> keywords = new ArrayList<>(KEYWORDS);
+        for (int i = 0; i < KEYWORDS; i++) {
+            keywords.add("Watch" + i);
+        }
+        List<Tweet> tweets = new ArrayList<>(TWEETS);
+        for (int i = 0; i < TWEETS; i++) {
+            String topic = i % 10 == 0 ? "watch" + (i % KEYWORDS) : "watchx" + i; // 10% hit rate
+            String text = "rivest talk in " + (i % 60) + " minutes about " + topic + " #hype";
+            tweets.add(new Tweet(i, "user" + (i % 997), text, Instant.ofEpochSecond(i)));
+        }
+
+        Bench.measure("lowercase + contains per keyword", TWEETS, () -> substringContaining(tweets, keywords));
+        Bench.measure("KeywordMatcher (compiled per call)", TWEETS, () -> Filter.containing(tweets, keywords));
+    }
+
+    private static List<Tweet> substringContaining(List<Tweet> tweets, List<String> words) {
+        List<Tweet> filteredTweets = new ArrayList<>();
+        for (Tweet tweet : tweets) {
+            String tweetText = tweet.getText();
+            for (String word : words) {
+                if (tweetText.toLowerCase().contains(word.toLowerCase())) {
+                    filteredTweets.add(tweet);
+                    break;
+                }
+            }
+        }
+        return filteredTweets;
+    }
+}
@@ -0,0 +1,45 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the lookbehind regex that Extract.getMentionedUsers used to compile
+ * on every call against MentionScanner.
+ */
+public class MentionScannerBenchmark {
+
+    private static final int TWEETS = 100_000;
+
+    public static void main(String[] args) {
+        List<Tweet> tweets = new ArrayList<>(TWEETS);
+        for (int i = 0; i < TWEETS; i++) {
+            String text = "rivest talk in " + (i % 60) + " minutes @user" + (i % 13)
+                    + " mail bitdiddle@mit.edu or ask @Ernie-" + (i % 7) + " #hype";
+            tweets.add(new Tweet(i, "user" + (i % 997), text, Instant.ofEpochSecond(i)));
+        }
+
+        Bench.measure("regex (compiled per call)", TWEETS, () -> regexMentions(tweets));
+        Bench.measure("MentionScanner", TWEETS, () -> Extract.getMentionedUsers(tweets));
+    }
+
+    private static Set<String> regexMentions(List<Tweet> tweets) {
+        Set<String> mentionedUsers = new HashSet<>();
+        Pattern pattern = Pattern.compile("(?<!\\w)@(\\w[-\\w]*)");
+        for (Tweet tweet : tweets) {
+            Matcher matcher = pattern.matcher(tweet.getText());
+            while (matcher.find()) {
+                mentionedUsers.add(matcher.group(1).toLowerCase());
+            }
+        }
+        return mentionedUsers;
+    }
+}
@@ -0,0 +1,55 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how TweetFileReader throughput scales with the parallelism of the
+ * fork-join pool, with and without interning authors. Allocation figures only
+ * count the calling thread, so they are not meaningful here.
+ *
+ * Usage: java -cp ... twitter.TweetFileReaderBenchmark [maxParallelism]
+ * with a default of the number of available processors.
+ */
+public class TweetFileReaderBenchmark {
+
+    private static final int TWEETS = 200_000;
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("tweets", ".ndjson");
+        try {
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                for (int i = 0; i < TWEETS; i++) {
+                    out.write("{\"id\": " + i + ", \"user\": {\"screen_name\": \"user" + (i % 997) + "\","
+                            + " \"followers_count\": " + (i % 4096) + "},"
+                            + " \"text\": \"rivest talk in " + (i % 60) + " minutes @user" + (i % 13) + " #hype\","
+                            + " \"entities\": {\"hashtags\": [{\"text\": \"hype\", \"indices\": [31, 36]}]},"
+                            + " \"created_at\": \"Wed Feb 17 10:00:00 +0000 2016\"}\n");
+                }
+            }
+
+            int maxParallelism = args.length > 0 ? Integer.parseInt(args[0])
+                    : Runtime.getRuntime().availableProcessors();
+            for (int parallelism = 1; parallelism <= maxParallelism; parallelism *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    Bench.measure("TweetFileReader, parallelism " + parallelism, TWEETS,
+                            () -> TweetFileReader.readTweets(file, pool));
+                    Bench.measure("TweetFileReader interning, parallelism " + parallelism, TWEETS,
+                            () -> TweetFileReader.readTweets(file, pool, new UsernameTable()));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
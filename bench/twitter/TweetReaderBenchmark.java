@@ -0,0 +1,85 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+
+/**
+ * Compares allocation per tweet of TweetReader's recursive map flattening
+ * against the direct extraction paths in TweetExtractor, on tweets that carry
+ * the bulky entities, user profile and retweeted_status blobs of the real API.
+ */
+public class TweetReaderBenchmark {
+
+    private static final int TWEETS = 20_000;
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("tweets", ".json");
+        try {
+            writeTweets(file, TWEETS);
+            URL url = file.toUri().toURL();
+
+            Bench.measure("TweetReader (constructTweetMap)", TWEETS,
+                    () -> TweetReader.readTweetsFromWeb(url));
+            Bench.measure("JsonReader DOM + TweetExtractor.fromJson", TWEETS,
+                    () -> readDom(file));
+            Bench.measure("TweetExtractor.readTweets (streaming)", TWEETS,
+                    () -> TweetExtractor.readTweets(Files.newBufferedReader(file, StandardCharsets.UTF_8)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<Tweet> readDom(Path file) throws IOException {
+        try (JsonReader reader = Json.createReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            JsonArray array = reader.readArray();
+            List<Tweet> tweets = new ArrayList<>(array.size());
+            for (int i = 0; i < array.size(); i++) {
+                tweets.add(TweetExtractor.fromJson(array.getJsonObject(i)));
+            }
+            return tweets;
+        }
+    }
+
+    private static void writeTweets(Path file, int count) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write('[');
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                String author = "user" + (i % 997);
+                String status = "{\"id\": " + (1_000_000L + i) + ","
+                        + " \"created_at\": \"Wed Feb 17 10:" + two(i / 60 % 60) + ":" + two(i % 60) + " +0000 2016\","
+                        + " \"text\": \"rivest talk in " + (i % 60) + " minutes @user" + (i % 13) + " #hype\","
+                        + " \"user.screen_name\": \"" + author + "\","
+                        + " \"user\": {\"id\": " + (i % 997) + ", \"screen_name\": \"" + author + "\","
+                        + " \"name\": \"User " + (i % 997) + "\", \"description\": \"6.005 student\","
+                        + " \"followers_count\": " + (i % 4096) + ", \"verified\": false, \"profile_image_url\": null},"
+                        + " \"entities\": {\"hashtags\": [{\"text\": \"hype\", \"indices\": [31, 36]}],"
+                        + " \"user_mentions\": [{\"screen_name\": \"user" + (i % 13) + "\", \"indices\": [24, 30]}],"
+                        + " \"urls\": []}";
+                out.write(status);
+                out.write(", \"retweeted_status\": " + status + "}}");
+            }
+            out.write(']');
+        }
+    }
+
+    private static String two(int n) {
+        return n < 10 ? "0" + n : Integer.toString(n);
+    }
+}
@@ -0,0 +1,44 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures reloading a TweetSnapshot: opening it, and opening it then
+ * decoding every tweet.
+ */
+public class TweetSnapshotBenchmark {
+
+    private static final int TWEETS = 1_000_000;
+
+    public static void main(String[] args) throws IOException {
+        List<Tweet> tweets = new ArrayList<>(TWEETS);
+        for (int i = 0; i < TWEETS; i++) {
+            tweets.add(new Tweet(i, "user" + (i % 9973), "rivest talk in " + (i % 60) + " minutes @user" + (i % 13) + " #hype",
+                    Instant.ofEpochSecond(1_455_000_000L + i)));
+        }
+        Path file = Files.createTempFile("tweets", ".snapshot");
+        try {
+            TweetSnapshot.write(tweets, file);
+            System.out.println("snapshot of " + TWEETS + " tweets is " + Files.size(file) + " bytes");
+
+            Bench.measure("TweetSnapshot.open", 1, () -> TweetSnapshot.open(file));
+            Bench.measure("TweetSnapshot.open, decode all", TWEETS, () -> {
+                long sum = 0;
+                for (Tweet tweet : TweetSnapshot.open(file)) {
+                    sum += tweet.getText().length();
+                }
+                return sum;
+            });
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable index of a list of tweets by author, for answering many
+ * Filter.writtenBy queries against the same corpus.
+ *
+ * The index is built once, in time linear in the number of tweets; each query
+ * then takes time proportional to the number of tweets it returns.
+ */
+public class AuthorIndex {
+
+    /*
+     * Rough JVM object sizes used by estimatedBytes(), assuming compressed
+     * references.
+     */
+    private static final int REFERENCE_BYTES = 4;
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int STRING_BYTES = 24 + OBJECT_HEADER_BYTES;
+
+    private final List<Tweet> tweets;
+    private final UsernameTable authors;
+    private final int[] offsets;
+    private final int[] positions;
+    private final long buildNanos;
+
+    /* Abstraction function:
+     *    represents the corpus tweets, where the tweets written by the author
+     *    with id k in the authors table are at the indices
+     *    positions[offsets[k] .. offsets[k+1]) of tweets
+     * Rep invariant:
+     *    offsets.length == authors.size() + 1, offsets[0] == 0,
+     *      offsets is nondecreasing, offsets[authors.size()] == tweets.size()
+     *    positions is a permutation of 0 .. tweets.size()-1
+     *    positions is strictly increasing within each author's range
+     *    tweets.get(p).getAuthor() has id k in authors iff p is in author k's range
+     * Safety from rep exposure:
+     *    tweets is a private copy of the caller's list, and is only returned
+     *      through new lists; arrays are copied before being returned;
+     *      authors is never returned
+     */
+
+    /**
+     * Build an index of a corpus.
+     *
+     * @param tweets
+     *            the corpus; not modified by this constructor, and later
+     *            changes to it do not affect the index
+     */
+    public AuthorIndex(List<Tweet> tweets) {
+        long start = System.nanoTime();
+        this.tweets = new ArrayList<>(tweets);
+        this.authors = new UsernameTable();
+
+        int n = this.tweets.size();
+        int[] authorIds = new int[n];
+        for (int i = 0; i < n; i++) {
+            authorIds[i] = authors.id(this.tweets.get(i).getAuthor());
+        }
+        this.offsets = new int[authors.size() + 1];
+        for (int authorId : authorIds) {
+            offsets[authorId + 1]++;
+        }
+        for (int k = 0; k < authors.size(); k++) {
+            offsets[k + 1] += offsets[k];
+        }
+        this.positions = new int[n];
+        int[] next = Arrays.copyOf(offsets, authors.size());
+        for (int i = 0; i < n; i++) {
+            positions[next[authorIds[i]]++] = i;
+        }
+        this.buildNanos = System.nanoTime() - start;
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert offsets.length == authors.size() + 1;
+        assert offsets[0] == 0 && offsets[authors.size()] == tweets.size();
+        assert positions.length == tweets.size();
+    }
+
+    /**
+     * Find tweets written by a particular user, as Filter.writtenBy does.
+     *
+     * @param username
+     *            Twitter username, required to be a valid Twitter username as
+     *            defined by Tweet.getAuthor()'s spec.
+     * @return all and only the tweets in the corpus whose author is username,
+     *         in the same order as in the corpus.
+     */
+    public List<Tweet> writtenBy(String username) {
+        int authorId = authors.find(username);
+        if (authorId < 0) {
+            return new ArrayList<>();
+        }
+        List<Tweet> result = new ArrayList<>(offsets[authorId + 1] - offsets[authorId]);
+        for (int i = offsets[authorId]; i < offsets[authorId + 1]; i++) {
+            result.add(tweets.get(positions[i]));
+        }
+        return result;
+    }
+
+    /**
+     * @param username
+     *            Twitter username
+     * @return indices in the corpus of the tweets written by username, in
+     *         increasing order
+     */
+    public int[] positions(String username) {
+        int authorId = authors.find(username);
+        if (authorId < 0) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(positions, offsets[authorId], offsets[authorId + 1]);
+    }
+
+    /**
+     * @param username
+     *            Twitter username
+     * @return number of tweets in the corpus written by username
+     */
+    public int count(String username) {
+        int authorId = authors.find(username);
+        return authorId < 0 ? 0 : offsets[authorId + 1] - offsets[authorId];
+    }
+
+    /**
+     * @return number of tweets in the corpus
+     */
+    public int size() {
+        return tweets.size();
+    }
+
+    /**
+     * @return number of distinct authors in the corpus, ignoring case
+     */
+    public int authorCount() {
+        return authors.size();
+    }
+
+    /**
+     * @return wall-clock time taken to build this index, in nanoseconds
+     */
+    public long buildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * @return approximate heap footprint of this index in bytes, excluding the
+     *         Tweet objects themselves
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        bytes += (long) REFERENCE_BYTES * tweets.size();  // copy of the corpus list
+        bytes += 4L * positions.length + 4L * offsets.length;
+        for (int k = 0; k < authors.size(); k++) {
+            // name, its chars, and the table's hash, slot and name reference
+            bytes += STRING_BYTES + 2L * authors.name(k).length() + 4 + 8 + REFERENCE_BYTES;
+        }
+        return bytes;
+    }
+
+    /*
+     * @see Object.toString()
+     */
+    @Override public String toString() {
+        return "AuthorIndex[" + size() + " tweets, " + authorCount() + " authors, built in "
+                + (buildNanos / 1_000_000) + " ms, ~" + (estimatedBytes() / 1024) + " KiB]";
+    }
+}
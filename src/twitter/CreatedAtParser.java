@@ -0,0 +1,183 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Parser for the created_at field of Twitter's API, e.g.
+ * "Wed Feb 17 10:00:00 +0000 2016".
+ *
+ * Well-formed values are decoded straight from their characters into epoch
+ * seconds. Anything outside the fixed 30-character layout is handed to the
+ * shared FORMAT, so results (and exceptions) are exactly those of
+ * ZonedDateTime.parse(text, FORMAT).toInstant().
+ */
+public class CreatedAtParser {
+
+    /**
+     * Layout of Twitter's created_at field. DateTimeFormatter is immutable and
+     * thread-safe, so this one instance is shared by every caller.
+     */
+    public static final DateTimeFormatter FORMAT =
+            DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss Z yyyy", Locale.US);
+
+    private static final String[] DAYS = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
+    private static final String[] MONTHS =
+        { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+
+    private static final int LENGTH = "Wed Feb 17 10:00:00 +0000 2016".length();
+    private static final int MAX_OFFSET_HOURS = 18;
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final long DAYS_0000_TO_1970 = 719_528;
+
+    /*
+     * Returned by the fast path when it declines an input.
+     */
+    private static final long NOT_FAST = Long.MIN_VALUE;
+
+    private CreatedAtParser() {
+    }
+
+    /**
+     * Parse a created_at value.
+     *
+     * @param text
+     *            value in the layout of FORMAT
+     * @return the instant text denotes
+     * @throws DateTimeParseException if text cannot be parsed by FORMAT
+     */
+    public static Instant parse(CharSequence text) {
+        return Instant.ofEpochSecond(parseEpochSecond(text));
+    }
+
+    /**
+     * Parse a created_at value to seconds since the epoch, without allocating
+     * for well-formed input.
+     *
+     * @param text
+     *            value in the layout of FORMAT
+     * @return the number of seconds from 1970-01-01T00:00:00Z to the instant
+     *         text denotes
+     * @throws DateTimeParseException if text cannot be parsed by FORMAT
+     */
+    public static long parseEpochSecond(CharSequence text) {
+        long seconds = parseFast(text);
+        if (seconds != NOT_FAST) {
+            return seconds;
+        }
+        return ZonedDateTime.parse(text, FORMAT).toEpochSecond();
+    }
+
+    /*
+     * Decode text in the exact layout "EEE MMM dd HH:mm:ss +HHMM yyyy".
+     *
+     * @return epoch seconds, or NOT_FAST if text is not a valid date/time in
+     *         exactly that layout.
+     */
+    private static long parseFast(CharSequence text) {
+        if (text.length() != LENGTH
+                || text.charAt(3) != ' ' || text.charAt(7) != ' ' || text.charAt(10) != ' '
+                || text.charAt(13) != ':' || text.charAt(16) != ':' || text.charAt(19) != ' '
+                || text.charAt(25) != ' ') {
+            return NOT_FAST;
+        }
+        int dayOfWeek = indexOf(DAYS, text, 0);
+        int month = indexOf(MONTHS, text, 4) + 1;
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = digits(text, 17, 2);
+        int offsetHours = digits(text, 21, 2);
+        int offsetMinutes = digits(text, 23, 2);
+        int year = digits(text, 26, 4);
+        char sign = text.charAt(20);
+        if (dayOfWeek < 0 || month < 1 || year < 1
+                || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59
+                || (sign != '+' && sign != '-')
+                || offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59
+                || offsetHours * 60 + offsetMinutes > MAX_OFFSET_HOURS * 60) {
+            return NOT_FAST;
+        }
+        long epochDay = epochDay(year, month, day);
+        if (Math.floorMod(epochDay + 3, 7) != dayOfWeek) {
+            return NOT_FAST; // day name contradicts the date; let FORMAT report it
+        }
+        int offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (sign == '-' ? -1 : 1);
+        return epochDay * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second - offsetSeconds;
+    }
+
+    /*
+     * @return days from 1970-01-01 to the given proleptic Gregorian date
+     */
+    private static long epochDay(int year, int month, int day) {
+        // same computation as LocalDate.toEpochDay()
+        long y = year;
+        long total = 365 * y;
+        total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+        case 2:
+            return isLeapYear(year) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+    /*
+     * @return value of the count decimal digits at text[start..], or -1 if
+     *         any of them is not an ASCII digit.
+     */
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /*
+     * @return index of the 3-letter name found at text[start..start+3), or -1
+     */
+    private static int indexOf(String[] names, CharSequence text, int start) {
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            if (text.charAt(start) == name.charAt(0)
+                    && text.charAt(start + 1) == name.charAt(1)
+                    && text.charAt(start + 2) == name.charAt(2)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
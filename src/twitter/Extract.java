@@ -4,11 +4,8 @@
 package twitter;
 
 import java.time.Instant;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Extract consists of methods that extract information from a list of tweets.
@@ -77,20 +74,13 @@ public class Extract {
      *         include a username at most once.
      */
     public static Set<String> getMentionedUsers(List<Tweet> tweets) {
-        Set<String> mentionedUsers = new HashSet<>();
-        // Regular expression to match Twitter usernames (accounting for '@')
-        Pattern pattern = Pattern.compile("(?<!\\w)@(\\w[-\\w]*)");
-
+        // usernames are case-insensitive, so the table keeps one lowercase copy of each
+        UsernameTable mentionedUsers = new UsernameTable();
+        MentionScanner.MentionVisitor addMention = mentionedUsers::id;
         for (Tweet tweet : tweets) {
-            String text = tweet.getText();
-            Matcher matcher = pattern.matcher(text);
-            while (matcher.find()) {
-                // Extract the username and add it to the set (case-insensitive)
-                String username = matcher.group(1); // group(1) captures the username without '@'
-                mentionedUsers.add(username);
-            }
+            MentionScanner.scan(tweet.getText(), addMention);
         }
-        return mentionedUsers;
+        return mentionedUsers.names();
     }
 
 
@@ -77,19 +77,9 @@ public class Filter {
      *         so "Obama" is the same as "obama".  The returned tweets are in the
      *         same order as in the input list.
      */
-	public static List<Tweet> containing(List<Tweet> tweets, List<String> words) {
-	    List<Tweet> filteredTweets = new ArrayList<>();
-	    for (Tweet tweet : tweets) {
-	        String tweetText = tweet.getText();
-	        for (String word : words) {
-	            if (tweetText.toLowerCase().contains(word.toLowerCase())) {
-	                filteredTweets.add(tweet);
-	                break; // No need to check other words for this tweet
-	            }
-	        }
-	    }
-	    return filteredTweets;
-	}
+    public static List<Tweet> containing(List<Tweet> tweets, List<String> words) {
+        return new KeywordMatcher(words).containing(tweets);
+    }
 
 
 }
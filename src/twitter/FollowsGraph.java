@@ -0,0 +1,472 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable follows graph, as SocialNetwork defines a social network, stored
+ * in compressed sparse row form.
+ *
+ * Each user is a dense int id in a UsernameTable. The users that user k
+ * follows are the ids neighbors[offsets[k] .. offsets[k+1]), sorted and
+ * distinct, so the graph costs about 4 bytes per edge and 4 bytes per user
+ * beyond the usernames themselves, instead of a HashSet entry per edge.
+ * asMap() presents it as the Map<String, Set<String>> that SocialNetwork's
+ * methods use, without copying.
+ */
+public class FollowsGraph {
+
+    /*
+     * Rough JVM object sizes used by estimatedBytes(), assuming compressed
+     * references.
+     */
+    private static final int REFERENCE_BYTES = 4;
+    private static final int STRING_BYTES = 40;
+
+    private final UsernameTable users;
+    private final int[] offsets;
+    private final int[] neighbors;
+
+    /* Abstraction function:
+     *    represents the social network whose users are the usernames in users,
+     *    where the user with id k follows the users with ids
+     *    neighbors[offsets[k] .. offsets[k+1])
+     * Rep invariant:
+     *    offsets.length == users.size() + 1, offsets[0] == 0,
+     *      offsets is nondecreasing, offsets[users.size()] == neighbors.length
+     *    each row of neighbors is strictly increasing, with ids in
+     *      0 .. users.size()-1, and never contains the row's own id
+     *    users is never modified after construction
+     * Safety from rep exposure:
+     *    users is never returned; arrays are only returned as copies, except
+     *      to package-private graph algorithms that promise not to modify them
+     */
+
+    /**
+     * Build a graph from a table of users and a list of edges.
+     *
+     * @param users
+     *            table naming every user of the graph; must not be modified
+     *            afterwards
+     * @param edges
+     *            edges[0 .. edgeCount), each packed as
+     *            (follower id << 32) | followee id, sorted in increasing order
+     *            and distinct, with follower != followee
+     * @param edgeCount
+     *            number of edges in use
+     */
+    FollowsGraph(UsernameTable users, long[] edges, int edgeCount) {
+        this.users = users;
+        this.offsets = new int[users.size() + 1];
+        this.neighbors = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[follower(edges[i]) + 1]++;
+            neighbors[i] = followee(edges[i]);
+        }
+        for (int k = 0; k < users.size(); k++) {
+            offsets[k + 1] += offsets[k];
+        }
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert offsets.length == users.size() + 1;
+        assert offsets[0] == 0 && offsets[users.size()] == neighbors.length;
+    }
+
+    /**
+     * Guess who might follow whom, as SocialNetwork.guessFollowsGraph does:
+     * each author follows every user they @-mention, other than themselves.
+     *
+     * @param tweets
+     *            a list of tweets providing the evidence, not modified by this
+     *            method.
+     * @return a graph whose users are all the authors and @-mentioned users of
+     *         tweets, ignoring case, and in which A follows B iff A is the
+     *         author of a tweet that mentions B, and A and B are different
+     *         users
+     */
+    public static FollowsGraph fromTweets(List<Tweet> tweets) {
+        UsernameTable users = new UsernameTable();
+        EdgeCollector edges = new EdgeCollector(users);
+        for (Tweet tweet : tweets) {
+            edges.addTweet(tweet);
+        }
+        return fromEdges(users, edges.edges, edges.size);
+    }
+
+    /**
+     * Get the graph of a social network.
+     *
+     * @param followsGraph
+     *            a social network, as SocialNetwork defines it
+     * @return the graph backing followsGraph if it is a view returned by
+     *         asMap(), otherwise a new graph whose users are all the usernames
+     *         in followsGraph (keys and members of its sets), ignoring case,
+     *         and in which A follows B iff followsGraph.get(A) contains B for
+     *         some key A, ignoring case, and A and B are different users
+     */
+    public static FollowsGraph of(Map<String, Set<String>> followsGraph) {
+        if (followsGraph instanceof FollowsGraph.MapView) {
+            return ((FollowsGraph.MapView) followsGraph).graph();
+        }
+        UsernameTable users = new UsernameTable();
+        long[] edges = new long[16];
+        int size = 0;
+        for (Map.Entry<String, Set<String>> entry : followsGraph.entrySet()) {
+            int follower = users.id(entry.getKey());
+            for (String username : entry.getValue()) {
+                int followee = users.id(username);
+                if (followee == follower) {
+                    continue;
+                }
+                if (size == edges.length) {
+                    edges = Arrays.copyOf(edges, 2 * size);
+                }
+                edges[size++] = edge(follower, followee);
+            }
+        }
+        return fromEdges(users, edges, size);
+    }
+
+    /**
+     * Sort and deduplicate a buffer of edges, then build a graph from it.
+     *
+     * @param users
+     *            table naming every user of the graph; must not be modified
+     *            afterwards
+     * @param edges
+     *            edges[0 .. edgeCount), packed as for the constructor but in
+     *            any order and possibly repeated, with follower != followee;
+     *            modified by this method
+     * @param edgeCount
+     *            number of edges in use
+     * @return the graph with those users and edges
+     */
+    static FollowsGraph fromEdges(UsernameTable users, long[] edges, int edgeCount) {
+        Arrays.sort(edges, 0, edgeCount);
+        return new FollowsGraph(users, edges, dedupSorted(edges, edgeCount));
+    }
+
+    /**
+     * Remove repeated values from a sorted prefix of an array.
+     *
+     * @param sorted
+     *            array whose prefix sorted[0 .. count) is nondecreasing;
+     *            modified by this method
+     * @param count
+     *            length of the prefix
+     * @return number of distinct values, which are moved, in order, to the
+     *         start of the prefix
+     */
+    static int dedupSorted(long[] sorted, int count) {
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || sorted[i] != sorted[distinct - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * @param follower
+     *            id of a user
+     * @param followee
+     *            id of another user
+     * @return the edge from follower to followee, packed into a long whose
+     *         natural order sorts edges by follower, then followee
+     */
+    static long edge(int follower, int followee) {
+        return ((long) follower << 32) | followee;
+    }
+
+    private static int follower(long edge) {
+        return (int) (edge >>> 32);
+    }
+
+    private static int followee(long edge) {
+        return (int) edge;
+    }
+
+    /**
+     * @return number of users in the graph; ids range over 0 .. userCount()-1
+     */
+    public int userCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @return number of follows edges in the graph
+     */
+    public int edgeCount() {
+        return neighbors.length;
+    }
+
+    /**
+     * @param username
+     *            Twitter username, in any case
+     * @return id of that user, or -1 if the user is not in the graph
+     */
+    public int id(String username) {
+        return users.find(username);
+    }
+
+    /**
+     * @param id
+     *            id of a user, 0 <= id < userCount()
+     * @return that user's username, in lowercase
+     */
+    public String name(int id) {
+        return users.name(id);
+    }
+
+    /**
+     * @param id
+     *            id of a user, 0 <= id < userCount()
+     * @return number of users that user follows
+     */
+    public int followingCount(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * @param id
+     *            id of a user, 0 <= id < userCount()
+     * @return ids of the users that user follows, in increasing order
+     */
+    public int[] following(int id) {
+        return Arrays.copyOfRange(neighbors, offsets[id], offsets[id + 1]);
+    }
+
+    /**
+     * @param follower
+     *            id of a user, 0 <= follower < userCount()
+     * @param followee
+     *            id of a user, 0 <= followee < userCount()
+     * @return true iff follower follows followee
+     */
+    public boolean follows(int follower, int followee) {
+        return Arrays.binarySearch(neighbors, offsets[follower], offsets[follower + 1], followee) >= 0;
+    }
+
+    /**
+     * @return a new array whose element k is the number of followers of the
+     *         user with id k
+     */
+    public int[] followerCounts() {
+        int[] counts = new int[userCount()];
+        for (int followee : neighbors) {
+            counts[followee]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Find the users with the most followers, as SocialNetwork.influencers
+     * does, but selecting only the first k instead of sorting every user.
+     *
+     * @param k
+     *            number of users wanted, k >= 0
+     * @return the min(k, userCount()) users with the most followers, as
+     *         lowercase usernames, in descending order of follower count;
+     *         users with equally many followers are in ascending order of
+     *         username. The result is a prefix of influencers(userCount()).
+     */
+    public List<String> influencers(int k) {
+        return influencers(k, followerCounts());
+    }
+
+    /*
+     * influencers(k), given counts equal to followerCounts().
+     */
+    List<String> influencers(int k, int[] counts) {
+        int[] top = TopK.select(userCount(), k, (a, b) -> {
+            int byCount = Integer.compare(counts[b], counts[a]);
+            return byCount != 0 ? byCount : name(a).compareTo(name(b));
+        });
+        List<String> result = new ArrayList<>(top.length);
+        for (int id : top) {
+            result.add(name(id));
+        }
+        return result;
+    }
+
+    /*
+     * Row offsets and neighbor ids, shared with graph algorithms in this
+     * package, which must not modify them.
+     */
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] neighbors() {
+        return neighbors;
+    }
+
+    /**
+     * @return approximate heap footprint of this graph in bytes
+     */
+    public long estimatedBytes() {
+        long bytes = 4L * offsets.length + 4L * neighbors.length;
+        for (int k = 0; k < userCount(); k++) {
+            // name, its chars, and the table's hash, slot and name reference
+            bytes += STRING_BYTES + 2L * users.name(k).length() + 4 + 8 + REFERENCE_BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return an unmodifiable social network, as SocialNetwork defines it,
+     *         backed by this graph. Its keys are the lowercase usernames of
+     *         all the users of this graph, each mapped to the set of users it
+     *         follows (possibly empty). Lookups of keys and of set elements
+     *         ignore case, which a social network's usernames do too.
+     */
+    public Map<String, Set<String>> asMap() {
+        return new MapView();
+    }
+
+    /*
+     * @see Object.toString()
+     */
+    @Override public String toString() {
+        return "FollowsGraph[" + userCount() + " users, " + edgeCount() + " edges]";
+    }
+
+    /*
+     * Collects the packed edges of tweets into edges[0 .. size), giving users
+     * ids in users: each author follows every other user they mention.
+     * Subclasses may override addTweet and addMention to gather more facts in
+     * the same pass, calling the overridden method.
+     */
+    static class EdgeCollector implements MentionScanner.MentionVisitor {
+        final UsernameTable users;
+        long[] edges = new long[16];
+        int size = 0;
+        private int author;
+
+        EdgeCollector(UsernameTable users) {
+            this.users = users;
+        }
+
+        void addTweet(Tweet tweet) {
+            author = users.id(tweet.getAuthor());
+            MentionScanner.scan(tweet.getText(), this);
+        }
+
+        @Override public void mention(CharSequence text, int start, int end) {
+            addMention(users.id(text, start, end));
+        }
+
+        /*
+         * Record that the current tweet's author mentions the user with id
+         * mentioned.
+         */
+        void addMention(int mentioned) {
+            if (mentioned == author) {
+                return;
+            }
+            if (size == edges.length) {
+                edges = Arrays.copyOf(edges, 2 * size);
+            }
+            edges[size++] = edge(author, mentioned);
+        }
+    }
+
+    private class MapView extends AbstractMap<String, Set<String>> {
+
+        FollowsGraph graph() {
+            return FollowsGraph.this;
+        }
+
+        @Override public int size() {
+            return userCount();
+        }
+
+        @Override public boolean containsKey(Object key) {
+            return key instanceof String && id((String) key) >= 0;
+        }
+
+        @Override public Set<String> get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            int id = id((String) key);
+            return id < 0 ? null : new FollowingView(id);
+        }
+
+        @Override public Set<Map.Entry<String, Set<String>>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Set<String>>>() {
+                @Override public int size() {
+                    return userCount();
+                }
+
+                @Override public Iterator<Map.Entry<String, Set<String>>> iterator() {
+                    return new Iterator<Map.Entry<String, Set<String>>>() {
+                        private int next = 0;
+
+                        @Override public boolean hasNext() {
+                            return next < userCount();
+                        }
+
+                        @Override public Map.Entry<String, Set<String>> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int id = next++;
+                            return new SimpleImmutableEntry<String, Set<String>>(name(id), new FollowingView(id));
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private class FollowingView extends AbstractSet<String> {
+        private final int follower;
+
+        FollowingView(int follower) {
+            this.follower = follower;
+        }
+
+        @Override public int size() {
+            return followingCount(follower);
+        }
+
+        @Override public boolean contains(Object o) {
+            if (!(o instanceof String)) {
+                return false;
+            }
+            int followee = id((String) o);
+            return followee >= 0 && follows(follower, followee);
+        }
+
+        @Override public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                private int next = offsets[follower];
+
+                @Override public boolean hasNext() {
+                    return next < offsets[follower + 1];
+                }
+
+                @Override public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return name(neighbors[next++]);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Mutable follows graph, as FollowsGraph.fromTweets guesses it, that absorbs
+ * new tweets as they arrive instead of being rebuilt from the full history.
+ *
+ * Adding a batch of tweets costs time proportional to the size of the batch
+ * (times log of the number of users, to keep the influencer ranking sorted),
+ * not to the size of the history: new edges are detected with a hash set of
+ * packed edges, appended to per-user adjacency arrays, and counted into
+ * per-user follower counts, and each user whose count changes is moved within
+ * a sorted ranking.
+ *
+ * This class is not thread-safe.
+ */
+public class IncrementalFollowsGraph {
+
+    private static final int INITIAL_USERS = 16;
+
+    private final UsernameTable users = new UsernameTable();
+    private final EdgeSet edges = new EdgeSet();
+    private int[][] following = new int[INITIAL_USERS][];
+    private int[] followingCounts = new int[INITIAL_USERS];
+    private int[] followerCounts = new int[INITIAL_USERS];
+    private final TreeSet<Integer> ranking = new TreeSet<>(this::compareRank);
+    private int tweetCount = 0;
+
+    // author of the tweet being scanned, who follows everyone it mentions
+    private int currentAuthor;
+    private final MentionScanner.MentionVisitor addMention = (text, start, end) -> {
+        int mentioned = addUser(text, start, end);
+        if (mentioned != currentAuthor) {
+            addEdge(currentAuthor, mentioned);
+        }
+    };
+
+    /* Abstraction function:
+     *    represents the follows graph guessed from the tweetCount tweets added
+     *    so far, whose users are the usernames in users, and where the user
+     *    with id k follows the users with ids following[k][0 .. followingCounts[k])
+     * Rep invariant:
+     *    following, followingCounts and followerCounts have equal lengths of at
+     *      least users.size(); following[k] is non-null for k < users.size()
+     *    following[k][0 .. followingCounts[k]) are distinct ids other than k
+     *    edges contains exactly FollowsGraph.edge(k, j) for each j in k's row
+     *    followerCounts[j] is the number of rows containing j
+     *    ranking contains exactly the ids 0 .. users.size()-1
+     *    currentAuthor is only meaningful during addTweets()
+     * Safety from rep exposure:
+     *    all fields are private; arrays and the ranking are never returned
+     */
+
+    /**
+     * Make an empty graph.
+     */
+    public IncrementalFollowsGraph() {
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert following.length == followingCounts.length && following.length == followerCounts.length;
+        assert following.length >= users.size();
+        assert ranking.size() == users.size();
+    }
+
+    /**
+     * Add the evidence in new tweets: each author follows every other user
+     * they @-mention.
+     *
+     * @param tweets
+     *            tweets not yet added, not modified by this method
+     */
+    public void addTweets(List<Tweet> tweets) {
+        for (Tweet tweet : tweets) {
+            add(tweet);
+        }
+        checkRep();
+    }
+
+    /**
+     * Add the evidence in one new tweet, as addTweets does, e.g. as each
+     * tweet of a stream arrives.
+     *
+     * @param tweet
+     *            tweet not yet added
+     */
+    public void addTweet(Tweet tweet) {
+        add(tweet);
+        checkRep();
+    }
+
+    private void add(Tweet tweet) {
+        currentAuthor = addUser(tweet.getAuthor(), 0, tweet.getAuthor().length());
+        MentionScanner.scan(tweet.getText(), addMention);
+        tweetCount++;
+    }
+
+    /**
+     * @return number of tweets added so far
+     */
+    public int tweetCount() {
+        return tweetCount;
+    }
+
+    /**
+     * @return number of users in the graph
+     */
+    public int userCount() {
+        return users.size();
+    }
+
+    /**
+     * @return number of follows edges in the graph
+     */
+    public int edgeCount() {
+        return edges.size();
+    }
+
+    /**
+     * @param username
+     *            Twitter username, in any case
+     * @return number of users that follow username, or 0 if username is not
+     *         in the graph
+     */
+    public int followerCount(String username) {
+        int id = users.find(username);
+        return id < 0 ? 0 : followerCounts[id];
+    }
+
+    /**
+     * @param follower
+     *            Twitter username, in any case
+     * @param followee
+     *            Twitter username, in any case
+     * @return true iff the graph has follower following followee
+     */
+    public boolean follows(String follower, String followee) {
+        int a = users.find(follower);
+        int b = users.find(followee);
+        return a >= 0 && b >= 0 && edges.contains(FollowsGraph.edge(a, b));
+    }
+
+    /**
+     * Find the users with the most followers, from the ranking kept current by
+     * addTweets(), in time proportional to k.
+     *
+     * @param k
+     *            number of users wanted, k >= 0
+     * @return the same list that snapshot().influencers(k) would return
+     */
+    public List<String> influencers(int k) {
+        List<String> result = new ArrayList<>(Math.min(k, users.size()));
+        Iterator<Integer> ids = ranking.iterator();
+        while (result.size() < k && ids.hasNext()) {
+            result.add(users.name(ids.next()));
+        }
+        return result;
+    }
+
+    /**
+     * @return an immutable copy of the current graph, built in time
+     *         proportional to its size
+     */
+    public FollowsGraph snapshot() {
+        UsernameTable copy = new UsernameTable();
+        for (int id = 0; id < users.size(); id++) {
+            copy.id(users.name(id));
+        }
+        long[] packed = new long[edges.size()];
+        int size = 0;
+        for (int id = 0; id < users.size(); id++) {
+            for (int i = 0; i < followingCounts[id]; i++) {
+                packed[size++] = FollowsGraph.edge(id, following[id][i]);
+            }
+        }
+        return FollowsGraph.fromEdges(copy, packed, size);
+    }
+
+    /*
+     * @see Object.toString()
+     */
+    @Override public String toString() {
+        return "IncrementalFollowsGraph[" + tweetCount + " tweets, " + userCount() + " users, "
+                + edgeCount() + " edges]";
+    }
+
+    private int addUser(CharSequence text, int start, int end) {
+        int before = users.size();
+        int id = users.id(text, start, end);
+        if (id == before) {
+            if (id == following.length) {
+                following = Arrays.copyOf(following, 2 * id);
+                followingCounts = Arrays.copyOf(followingCounts, 2 * id);
+                followerCounts = Arrays.copyOf(followerCounts, 2 * id);
+            }
+            following[id] = new int[2];
+            ranking.add(id);
+        }
+        return id;
+    }
+
+    private void addEdge(int follower, int followee) {
+        if (!edges.add(FollowsGraph.edge(follower, followee))) {
+            return;
+        }
+        int[] row = following[follower];
+        if (followingCounts[follower] == row.length) {
+            row = following[follower] = Arrays.copyOf(row, 2 * row.length);
+        }
+        row[followingCounts[follower]++] = followee;
+
+        ranking.remove(followee);
+        followerCounts[followee]++;
+        ranking.add(followee);
+    }
+
+    /*
+     * Same order as FollowsGraph.influencers: follower count descending, then
+     * username ascending.
+     */
+    private int compareRank(Integer a, Integer b) {
+        int byCount = Integer.compare(followerCounts[b], followerCounts[a]);
+        return byCount != 0 ? byCount : users.name(a).compareTo(users.name(b));
+    }
+
+    /*
+     * Open-addressing hash set of packed edges. 0 marks an empty slot; it is
+     * the packed self-follow of user 0, which is never added.
+     */
+    private static class EdgeSet {
+        private long[] slots = new long[64];
+        private int size = 0;
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(long edge) {
+            int mask = slots.length - 1;
+            for (int slot = hash(edge) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                if (slots[slot] == edge) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /* @return true iff edge was not already in the set */
+        boolean add(long edge) {
+            assert edge != 0;
+            int mask = slots.length - 1;
+            int slot = hash(edge) & mask;
+            for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+                if (slots[slot] == edge) {
+                    return false;
+                }
+            }
+            slots[slot] = edge;
+            if (2 * ++size > slots.length) {
+                rehash();
+            }
+            return true;
+        }
+
+        private void rehash() {
+            long[] old = slots;
+            slots = new long[2 * old.length];
+            int mask = slots.length - 1;
+            for (long edge : old) {
+                if (edge != 0) {
+                    int slot = hash(edge) & mask;
+                    while (slots[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slots[slot] = edge;
+                }
+            }
+        }
+
+        private static int hash(long edge) {
+            long h = edge * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
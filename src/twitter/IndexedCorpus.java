@@ -0,0 +1,89 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable list of tweets together with its author, time and word indexes,
+ * for running many TweetQuery queries against the same corpus.
+ *
+ * All three indexes are built from the same list, so a position reported by
+ * any of them names the same tweet.
+ */
+public class IndexedCorpus {
+
+    private final List<Tweet> tweets;
+    private final AuthorIndex authors;
+    private final TimeIndex times;
+    private final WordIndex words;
+
+    /* Abstraction function:
+     *    represents the corpus tweets, indexed by authors, times and words
+     * Rep invariant:
+     *    authors, times and words were all built from a list equal to tweets
+     * Safety from rep exposure:
+     *    tweets is a private copy of the caller's list and is never returned;
+     *    the indexes are immutable
+     */
+
+    /**
+     * Index a corpus.
+     *
+     * @param tweets
+     *            the corpus; not modified by this constructor, and later
+     *            changes to it do not affect the index
+     */
+    public IndexedCorpus(List<Tweet> tweets) {
+        this.tweets = new ArrayList<>(tweets);
+        this.authors = new AuthorIndex(this.tweets);
+        this.times = new TimeIndex(this.tweets);
+        this.words = new WordIndex(this.tweets);
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert authors.size() == tweets.size();
+        assert times.size() == tweets.size();
+        assert words.size() == tweets.size();
+    }
+
+    /**
+     * @param position
+     *            index in the corpus, 0 <= position < size()
+     * @return the tweet at that position
+     */
+    public Tweet get(int position) {
+        return tweets.get(position);
+    }
+
+    /**
+     * @return number of tweets in the corpus
+     */
+    public int size() {
+        return tweets.size();
+    }
+
+    /**
+     * @return index of the corpus by author
+     */
+    public AuthorIndex authors() {
+        return authors;
+    }
+
+    /**
+     * @return index of the corpus by timestamp
+     */
+    public TimeIndex times() {
+        return times;
+    }
+
+    /**
+     * @return index of the corpus by the words in tweet text
+     */
+    public WordIndex words() {
+        return words;
+    }
+}
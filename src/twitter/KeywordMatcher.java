@@ -0,0 +1,231 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable compiled set of keywords, for filtering a corpus once by a long
+ * keyword list without building a WordIndex.
+ *
+ * The keywords are compiled into a trie over case-folded chars. Because a
+ * keyword must match a whole word of the text, a failed match can only resume
+ * at the next word boundary, so the trie is the whole Aho-Corasick automaton:
+ * its failure links all lead back to the root. Scanning a text therefore
+ * looks at each char once, whatever the number of keywords.
+ */
+public class KeywordMatcher {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final long EMPTY_KEY = -1L;
+
+    private final int keywordCount;
+    private final int[] keywordAt;
+    private final long[] edgeKeys;
+    private final int[] edgeTargets;
+    private final int mask;
+
+    /* Abstraction function:
+     *    represents the keywords of the list given to the constructor, where
+     *    node ROOT is the empty prefix, node t's child by folded char c is
+     *    edgeTargets[i] for the slot i with edgeKeys[i] == edgeKey(t, c), and
+     *    keywordAt[t] is the least index of a keyword spelling out t's prefix,
+     *    or NONE if that prefix is not a keyword
+     * Rep invariant:
+     *    edgeKeys.length == edgeTargets.length == mask + 1, a power of 2,
+     *      with at least one EMPTY_KEY slot
+     *    edgeTargets[i] is in 1 .. keywordAt.length-1 where edgeKeys[i] != EMPTY_KEY
+     *    keywordAt[t] is NONE or in 0 .. keywordCount-1
+     * Safety from rep exposure:
+     *    all fields are private, and arrays are never returned
+     */
+
+    /**
+     * Compile a list of keywords.
+     *
+     * @param keywords
+     *            keywords to match, compared without regard to case. A keyword
+     *            is a nonempty sequence of nonspace characters; entries that
+     *            are empty or contain a space can never match a whole word, so
+     *            they are kept only to preserve the indices of the others.
+     */
+    public KeywordMatcher(List<String> keywords) {
+        this.keywordCount = keywords.size();
+        int maxNodes = 1;
+        for (String keyword : keywords) {
+            maxNodes += keyword.length();
+        }
+        int capacity = Integer.highestOneBit(Math.max(4, maxNodes * 2 - 1)) * 2;
+        this.edgeKeys = new long[capacity];
+        Arrays.fill(edgeKeys, EMPTY_KEY);
+        this.edgeTargets = new int[capacity];
+        this.mask = capacity - 1;
+
+        int[] keywordAt = new int[maxNodes];
+        Arrays.fill(keywordAt, NONE);
+        int nodes = 1;
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            if (keyword.isEmpty() || containsSpace(keyword)) {
+                continue;
+            }
+            int node = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                long key = edgeKey(node, Words.fold(keyword.charAt(i)));
+                int slot = slot(key);
+                if (edgeKeys[slot] == EMPTY_KEY) {
+                    edgeKeys[slot] = key;
+                    edgeTargets[slot] = nodes++;
+                }
+                node = edgeTargets[slot];
+            }
+            if (keywordAt[node] == NONE) {
+                keywordAt[node] = k;
+            }
+        }
+        this.keywordAt = Arrays.copyOf(keywordAt, nodes);
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert edgeKeys.length == mask + 1 && edgeTargets.length == mask + 1;
+        assert Integer.bitCount(mask + 1) == 1;
+        assert keywordAt.length >= 1 && keywordAt.length <= mask;
+    }
+
+    /**
+     * @return number of keywords given to the constructor, including
+     *         duplicates and entries that can never match
+     */
+    public int keywordCount() {
+        return keywordCount;
+    }
+
+    /**
+     * Report every word of a text that is one of the keywords.
+     *
+     * @param text
+     *            text, seen as a sequence of nonempty words bounded by space
+     *            characters and the ends of the string
+     * @param action
+     *            called, in text order, once for each word of text that equals
+     *            a keyword ignoring case, with the least index of such a
+     *            keyword in the list given to the constructor
+     */
+    public void forEachMatch(CharSequence text, IntConsumer action) {
+        scan(text, action, false);
+    }
+
+    /**
+     * @param text
+     *            text, seen as a sequence of nonempty words bounded by space
+     *            characters and the ends of the string
+     * @return true iff some word of text equals a keyword ignoring case
+     */
+    public boolean matches(CharSequence text) {
+        return scan(text, keyword -> { }, true);
+    }
+
+    /**
+     * Find tweets that contain any of the keywords, as Filter.containing does.
+     *
+     * @param tweets
+     *            a list of tweets, not modified by this method.
+     * @return all and only the tweets in the list whose text includes at least
+     *         one of the keywords, ignoring case, as a whole word. The returned
+     *         tweets are in the same order as in the input list.
+     */
+    public List<Tweet> containing(List<Tweet> tweets) {
+        List<Tweet> result = new ArrayList<>();
+        for (Tweet tweet : tweets) {
+            if (matches(tweet.getText())) {
+                result.add(tweet);
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Walk the trie over each word of text, calling action with the keyword
+     * index of each word that is a keyword, in text order.
+     * @return true iff some word matched; if stopAtFirst, stops there
+     */
+    private boolean scan(CharSequence text, IntConsumer action, boolean stopAtFirst) {
+        boolean matched = false;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (Words.isSpace(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int node = ROOT;
+            for (; i < length; i++) {
+                char c = text.charAt(i);
+                if (Words.isSpace(c)) {
+                    break;
+                }
+                if (node != NONE) {
+                    node = child(node, Words.fold(c));
+                }
+            }
+            if (node != NONE && keywordAt[node] != NONE) {
+                action.accept(keywordAt[node]);
+                matched = true;
+                if (stopAtFirst) {
+                    return true;
+                }
+            }
+        }
+        return matched;
+    }
+
+    /*
+     * @return node's child by folded char c, or NONE if there is none
+     */
+    private int child(int node, char c) {
+        long key = edgeKey(node, c);
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            long found = edgeKeys[slot];
+            if (found == key) {
+                return edgeTargets[slot];
+            } else if (found == EMPTY_KEY) {
+                return NONE;
+            }
+        }
+    }
+
+    /*
+     * @return the slot holding key, or the empty slot where it belongs
+     */
+    private int slot(long key) {
+        int slot = hash(key) & mask;
+        while (edgeKeys[slot] != EMPTY_KEY && edgeKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long edgeKey(int node, char c) {
+        return ((long) node << 16) | c;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static boolean containsSpace(String keyword) {
+        for (int i = 0; i < keyword.length(); i++) {
+            if (Words.isSpace(keyword.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,178 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP server that stands in for Main.SAMPLE_SERVER, so that the
+ * fetch-parse-analyze loop can be run and load-tested offline.
+ *
+ * Every GET of its path responds with the next batch of tweets from a
+ * TweetCorpusGenerator, as a JSON array in the sample server's format, so
+ * successive polls see new tweets just as they would from Twitter. Batches
+ * are generated on demand and streamed to the client with chunked transfer
+ * encoding by a fixed pool of HANDLER_THREADS threads, so however many
+ * clients poll at once, the server holds at most HANDLER_THREADS batches in
+ * memory. The server listens only on the loopback address.
+ */
+public class LocalTweetServer implements AutoCloseable {
+
+    /**
+     * Path the tweets are served from.
+     */
+    public static final String PATH = "/tweets";
+
+    /**
+     * Number of requests handled at once; further requests wait in the
+     * server's queue.
+     */
+    public static final int HANDLER_THREADS = 4;
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final Iterator<Tweet> corpus;
+    private final int batchSize;
+    private final AtomicLong requestCount = new AtomicLong();
+
+    /* Abstraction function:
+     *    represents a server at server.getAddress() that has served
+     *    requestCount batches of batchSize tweets, the next batch being the
+     *    next batchSize tweets of corpus
+     * Rep invariant:
+     *    batchSize >= 1
+     *    corpus is only advanced while holding its lock
+     * Safety from rep exposure:
+     *    all fields are private, and none is ever returned
+     * Thread safety argument:
+     *    requests are handled concurrently on handlers; they share only corpus,
+     *    whose batches are taken under its lock, and the atomic requestCount
+     */
+
+    private LocalTweetServer(HttpServer server, ExecutorService handlers, Iterator<Tweet> corpus, int batchSize) {
+        this.server = server;
+        this.handlers = handlers;
+        this.corpus = corpus;
+        this.batchSize = batchSize;
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert batchSize >= 1;
+    }
+
+    /**
+     * Start a server on a free loopback port.
+     *
+     * @param generator
+     *            corpus to serve, from its first tweet on
+     * @param batchSize
+     *            number of tweets in each response, >= 1
+     * @return a running server; close it to stop it
+     * @throws IOException
+     *             if the server cannot be bound
+     */
+    public static LocalTweetServer start(TweetCorpusGenerator generator, int batchSize) throws IOException {
+        return start(generator, batchSize, 0);
+    }
+
+    /**
+     * Start a server on a loopback port.
+     *
+     * @param generator
+     *            corpus to serve, from its first tweet on
+     * @param batchSize
+     *            number of tweets in each response, >= 1
+     * @param port
+     *            port to listen on, or 0 for any free port
+     * @return a running server; close it to stop it
+     * @throws IOException
+     *             if the server cannot be bound
+     */
+    public static LocalTweetServer start(TweetCorpusGenerator generator, int batchSize, int port)
+            throws IOException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("requires batchSize >= 1");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        ExecutorService handlers = Executors.newFixedThreadPool(HANDLER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "LocalTweetServer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        LocalTweetServer tweetServer = new LocalTweetServer(server, handlers, generator.iterator(Long.MAX_VALUE),
+                batchSize);
+        server.createContext(PATH, tweetServer::handle);
+        server.setExecutor(handlers);
+        server.start();
+        return tweetServer;
+    }
+
+    /**
+     * @return URI that serves the tweets
+     */
+    public URI uri() {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + PATH);
+    }
+
+    /**
+     * @return number of batches served so far
+     */
+    public long requestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Stop the server, abandoning requests in progress.
+     */
+    @Override public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    /*
+     * @see Object.toString()
+     */
+    @Override public String toString() {
+        return "LocalTweetServer[" + uri() + ", " + requestCount() + " requests]";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            List<Tweet> batch = new ArrayList<>(batchSize);
+            synchronized (corpus) {
+                while (batch.size() < batchSize) {
+                    batch.add(corpus.next());
+                }
+            }
+            requestCount.incrementAndGet();
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            try (Writer out = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+                TweetCorpusGenerator.writeJson(batch.iterator(), out);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
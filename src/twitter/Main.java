@@ -5,10 +5,14 @@ package twitter;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * This is the main program.
@@ -24,6 +28,11 @@ public class Main {
      */
     public static final URL SAMPLE_SERVER = makeURLAssertWellFormatted("http://courses.csail.mit.edu/6.005/ps1_tweets/tweetPoll.py");
     
+    /**
+     * Time between successive polls with --poll.
+     */
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(10);
+    
     private static URL makeURLAssertWellFormatted(String urlString) {
         try {
             return new URL(urlString);
@@ -36,7 +45,12 @@ public class Main {
      * Main method of the program. Fetches a sample of tweets and prints some
      * facts about it.
      * 
-     * @param args command-line arguments (not used)
+     * With --poll n, polls the server n times on a schedule instead of
+     * fetching once, reporting on each batch as it arrives. With --local,
+     * serves generated tweets from a LocalTweetServer instead of using
+     * SAMPLE_SERVER, so that everything runs offline.
+     * 
+     * @param args command-line arguments: [--poll n] [--local]
      */
     public static void main(String[] args) {
         try {
@@ -44,30 +58,80 @@ public class Main {
             throw new Error("Always run main and tests with assertions enabled");
         } catch (AssertionError ae) { }
         
-        final List<Tweet> tweets;
-        try {
-            tweets = TweetReader.readTweetsFromWeb(SAMPLE_SERVER);
-        } catch (IOException ioe) {
-            throw new RuntimeException(ioe);
+        final List<String> options = Arrays.asList(args);
+        final int polls = options.contains("--poll") ? parsePolls(options) : 0;
+        final boolean local = options.contains("--local");
+        
+        if (polls == 0 && !local) {
+            final List<Tweet> tweets;
+            try {
+                tweets = TweetReader.readTweetsFromWeb(SAMPLE_SERVER);
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+            report(tweets);
+            return;
         }
         
+        try (LocalTweetServer server = local ? LocalTweetServer.start(new TweetCorpusGenerator(0), 10_000) : null) {
+            final URI uri = local ? server.uri() : SAMPLE_SERVER.toURI();
+            final CountDownLatch remaining = new CountDownLatch(Math.max(polls, 1));
+            try (TweetPoller poller = new TweetPoller(uri, POLL_INTERVAL, tweets -> {
+                report(tweets);
+                remaining.countDown();
+            }, error -> System.err.println("poll failed: " + error))) {
+                poller.start();
+                remaining.await();
+            }
+        } catch (IOException | URISyntaxException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+    
+    /*
+     * @return the n of --poll n in options, exiting with a usage message if
+     *         it is missing or not a positive integer
+     */
+    private static int parsePolls(List<String> options) {
+        final int at = options.indexOf("--poll") + 1;
+        try {
+            final int polls = Integer.parseInt(options.get(at));
+            if (polls >= 1) {
+                return polls;
+            }
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            // fall through to the usage message
+        }
+        System.err.println("usage: Main [--poll n] [--local], where n is a positive number of polls");
+        System.exit(2);
+        throw new AssertionError("unreachable");
+    }
+    
+    /*
+     * Print some facts about a batch of tweets, all gathered in one pass.
+     */
+    private static void report(List<Tweet> tweets) {
         // display some characteristics about the tweets
         System.err.println("fetched " + tweets.size() + " tweets");
+        if (tweets.isEmpty()) {
+            return;
+        }
         
-        final Timespan span = Extract.getTimespan(tweets);
+        final TweetAnalysis analysis = TweetAnalysis.of(tweets);
+        final Timespan span = analysis.timespan();
         System.err.println("ranging from " + span.getStart() + " to " + span.getEnd());
         
-        final Set<String> mentionedUsers = Extract.getMentionedUsers(tweets);
+        final Set<String> mentionedUsers = analysis.mentionedUsers();
         System.err.println("covers " + mentionedUsers.size() + " Twitter users");
         
         // infer the follows graph
-        final Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
-        System.err.println("follows graph has " + followsGraph.size() + " nodes");
+        final FollowsGraph followsGraph = analysis.graph();
+        System.err.println("follows graph has " + followsGraph.userCount() + " nodes");
         
         // print the top-N influencers
         final int count = 10;
-        final List<String> influencers = SocialNetwork.influencers(followsGraph);
-        for (String username : influencers.subList(0, Math.min(count, influencers.size()))) {
+        final List<String> influencers = analysis.influencers(count);
+        for (String username : influencers) {
             System.out.println(username);
         }
     }
@@ -0,0 +1,118 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.Collection;
+
+/**
+ * Finds username-mentions in tweet text in a single pass over its chars,
+ * without regular expressions.
+ *
+ * A username-mention is "@" followed by a Twitter username (as defined by
+ * Tweet.getAuthor()'s spec), not immediately preceded or followed by any
+ * character valid in a Twitter username. So bitdiddle@mit.edu does not
+ * mention mit.
+ */
+public class MentionScanner {
+
+    /**
+     * Receives the mentions found in a text.
+     */
+    public interface MentionVisitor {
+        /**
+         * Called once per mention, in text order.
+         *
+         * @param text
+         *            the text being scanned
+         * @param start
+         *            index of the first char of the username, just after the '@'
+         * @param end
+         *            index just past the last char of the username
+         */
+        void mention(CharSequence text, int start, int end);
+    }
+
+    private MentionScanner() {
+    }
+
+    /**
+     * @param c
+     *            a character
+     * @return true iff c may appear in a Twitter username: A-Z, a-z, 0-9,
+     *         underscore or hyphen
+     */
+    public static boolean isUsernameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_' || c == '-';
+    }
+
+    /**
+     * Report every username-mention in a text, without allocating.
+     *
+     * @param text
+     *            text to scan
+     * @param visitor
+     *            called with the bounds of each mentioned username, in order;
+     *            a username mentioned twice is reported twice
+     */
+    public static void scan(CharSequence text, MentionVisitor visitor) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (text.charAt(i) != '@' || (i > 0 && isUsernameChar(text.charAt(i - 1)))) {
+                i++;
+                continue;
+            }
+            int start = i + 1;
+            int end = start;
+            while (end < length && isUsernameChar(text.charAt(end))) {
+                end++;
+            }
+            if (end > start) {
+                // the run is maximal, so the char after it (if any) is not a username char
+                visitor.mention(text, start, end);
+            }
+            i = end;
+        }
+    }
+
+    /**
+     * Add the usernames mentioned in a text to a collection.
+     *
+     * @param text
+     *            text to scan
+     * @param usernames
+     *            receives each mentioned username, converted to lowercase
+     */
+    public static void addMentions(CharSequence text, Collection<String> usernames) {
+        scan(text, (t, start, end) -> usernames.add(toLowerCase(t, start, end)));
+    }
+
+    /**
+     * @param text
+     *            text containing a Twitter username at [start, end)
+     * @param start
+     *            index of the first char of the username
+     * @param end
+     *            index just past the last char of the username
+     * @return the username in lowercase, the canonical form of a
+     *         case-insensitive username
+     */
+    public static String toLowerCase(CharSequence text, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = toLowerCase(text.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @param c
+     *            a character valid in a Twitter username
+     * @return c in lowercase
+     */
+    public static char toLowerCase(char c) {
+        return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,343 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Immutable PageRank influence scores of the users of a follows graph, an
+ * alternative to ranking users by raw follower count.
+ *
+ * Following someone passes them a share of your own influence, so a user is
+ * influential if influential users follow them. Scores are computed by power
+ * iteration over primitive double[] vectors. The graph is transposed once, so
+ * each iteration pulls contributions along each user's followers and every
+ * score is written by exactly one fork-join task, without locks. Iteration
+ * stops when the scores change by less than a tolerance (in L1 norm) or after
+ * a maximum number of iterations.
+ */
+public class PageRank {
+
+    /**
+     * Probability that influence follows an edge rather than being spread
+     * evenly over all users.
+     */
+    public static final double DEFAULT_DAMPING = 0.85;
+
+    /**
+     * Iteration stops once the L1 change in scores is below this.
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-9;
+
+    /**
+     * Iteration stops after this many rounds even if not converged.
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
+
+    /*
+     * A task handles a range of users sequentially once its users plus their
+     * incoming edges are no more than this.
+     */
+    private static final int SEQUENTIAL_WORK = 1 << 14;
+
+    private final FollowsGraph graph;
+    private final double[] scores;
+    private final int iterations;
+    private final boolean converged;
+
+    /* Abstraction function:
+     *    represents the scores of the users of graph, where the user with id k
+     *    has score scores[k], reached after the given number of iterations,
+     *    and converged says whether the tolerance was met
+     * Rep invariant:
+     *    scores.length == graph.userCount(); every score is >= 0, and they sum
+     *      to about 1 if there is any user
+     *    0 <= iterations
+     * Safety from rep exposure:
+     *    graph is immutable; scores is only returned as a copy
+     */
+
+    private PageRank(FollowsGraph graph, double[] scores, int iterations, boolean converged) {
+        this.graph = graph;
+        this.scores = scores;
+        this.iterations = iterations;
+        this.converged = converged;
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert scores.length == graph.userCount();
+        assert iterations >= 0;
+    }
+
+    /**
+     * Score a graph with the default parameters on the common fork-join pool.
+     *
+     * @param graph
+     *            follows graph
+     * @return PageRank scores of graph's users
+     */
+    public static PageRank of(FollowsGraph graph) {
+        return of(graph, DEFAULT_DAMPING, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Score a graph.
+     *
+     * @param graph
+     *            follows graph
+     * @param damping
+     *            probability that influence follows an edge, 0 <= damping < 1
+     * @param tolerance
+     *            stop once the L1 change in scores is below this, tolerance >= 0
+     * @param maxIterations
+     *            stop after this many iterations, maxIterations >= 0
+     * @param pool
+     *            pool to run on
+     * @return PageRank scores of graph's users
+     */
+    public static PageRank of(FollowsGraph graph, double damping, double tolerance, int maxIterations,
+            ForkJoinPool pool) {
+        if (!(damping >= 0 && damping < 1) || !(tolerance >= 0) || maxIterations < 0) {
+            throw new IllegalArgumentException("requires 0 <= damping < 1, tolerance >= 0, maxIterations >= 0");
+        }
+        int n = graph.userCount();
+        if (n == 0) {
+            return new PageRank(graph, new double[0], 0, true);
+        }
+        Transpose transpose = new Transpose(graph);
+        double[] rank = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        double[] next = new double[n];
+        double[] share = new double[n];
+
+        int iteration = 0;
+        boolean converged = false;
+        while (iteration < maxIterations && !converged) {
+            double dangling = pool.invoke(new ShareTask(transpose, rank, share, 0, n));
+            double base = (1 - damping) / n + damping * dangling / n;
+            double change = pool.invoke(new PullTask(transpose, rank, share, next, base, damping, 0, n));
+            double[] swap = rank;
+            rank = next;
+            next = swap;
+            iteration++;
+            converged = change < tolerance;
+        }
+        return new PageRank(graph, rank, iteration, converged);
+    }
+
+    /**
+     * Rank the users of a social network by PageRank, for use in place of
+     * SocialNetwork.influencers.
+     *
+     * @param followsGraph
+     *            a social network, as SocialNetwork defines it
+     * @return a list of all distinct Twitter usernames in followsGraph, in
+     *         lowercase, in descending order of PageRank score
+     */
+    public static List<String> influencers(Map<String, Set<String>> followsGraph) {
+        PageRank ranks = of(FollowsGraph.of(followsGraph));
+        return ranks.influencers(ranks.graph.userCount());
+    }
+
+    /**
+     * @return the graph these scores are for
+     */
+    public FollowsGraph graph() {
+        return graph;
+    }
+
+    /**
+     * @return number of iterations run
+     */
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * @return true iff iteration stopped because the tolerance was met
+     */
+    public boolean converged() {
+        return converged;
+    }
+
+    /**
+     * @param username
+     *            Twitter username, in any case
+     * @return score of that user, or 0 if the user is not in the graph
+     */
+    public double score(String username) {
+        int id = graph.id(username);
+        return id < 0 ? 0 : scores[id];
+    }
+
+    /**
+     * @return a new array whose element k is the score of the user with id k
+     *         in graph()
+     */
+    public double[] scores() {
+        return scores.clone();
+    }
+
+    /**
+     * Find the most influential users by score, selecting only the first k.
+     *
+     * @param k
+     *            number of users wanted, k >= 0
+     * @return the min(k, number of users) users with the highest scores, as
+     *         lowercase usernames, in descending order of score; users with
+     *         equal scores are in ascending order of username
+     */
+    public List<String> influencers(int k) {
+        int[] top = TopK.select(scores.length, k, (a, b) -> {
+            int byScore = Double.compare(scores[b], scores[a]);
+            return byScore != 0 ? byScore : graph.name(a).compareTo(graph.name(b));
+        });
+        List<String> result = new ArrayList<>(top.length);
+        for (int id : top) {
+            result.add(graph.name(id));
+        }
+        return result;
+    }
+
+    /*
+     * Followers of each user in CSR form, and how many users each user follows.
+     */
+    private static class Transpose {
+        final int[] offsets;
+        final int[] followers;
+        final int[] outDegrees;
+
+        Transpose(FollowsGraph graph) {
+            int n = graph.userCount();
+            int[] rows = graph.offsets();
+            int[] neighbors = graph.neighbors();
+            this.outDegrees = new int[n];
+            this.offsets = new int[n + 1];
+            for (int followee : neighbors) {
+                offsets[followee + 1]++;
+            }
+            for (int k = 0; k < n; k++) {
+                offsets[k + 1] += offsets[k];
+                outDegrees[k] = rows[k + 1] - rows[k];
+            }
+            this.followers = new int[neighbors.length];
+            int[] next = Arrays.copyOf(offsets, n);
+            for (int follower = 0; follower < n; follower++) {
+                for (int i = rows[follower]; i < rows[follower + 1]; i++) {
+                    followers[next[neighbors[i]]++] = follower;
+                }
+            }
+        }
+
+        /* @return users in [lo, hi) plus their incoming edges */
+        int work(int lo, int hi) {
+            return (hi - lo) + (offsets[hi] - offsets[lo]);
+        }
+    }
+
+    /*
+     * Sets share[k] = rank[k] / outDegree(k) for users in [lo, hi), and
+     * returns the total rank of those that follow nobody.
+     */
+    private static class ShareTask extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final Transpose transpose;
+        private final double[] rank;
+        private final double[] share;
+        private final int lo;
+        private final int hi;
+
+        ShareTask(Transpose transpose, double[] rank, double[] share, int lo, int hi) {
+            this.transpose = transpose;
+            this.rank = rank;
+            this.share = share;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override protected Double compute() {
+            if (hi - lo <= SEQUENTIAL_WORK) {
+                double dangling = 0;
+                for (int k = lo; k < hi; k++) {
+                    int outDegree = transpose.outDegrees[k];
+                    if (outDegree == 0) {
+                        dangling += rank[k];
+                        share[k] = 0;
+                    } else {
+                        share[k] = rank[k] / outDegree;
+                    }
+                }
+                return dangling;
+            }
+            int mid = (lo + hi) >>> 1;
+            ShareTask left = new ShareTask(transpose, rank, share, lo, mid);
+            left.fork();
+            double right = new ShareTask(transpose, rank, share, mid, hi).compute();
+            return left.join() + right;
+        }
+    }
+
+    /*
+     * Sets next[k] = base + damping * (sum of share over k's followers) for
+     * users in [lo, hi), and returns the L1 distance from rank over them.
+     */
+    private static class PullTask extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final Transpose transpose;
+        private final double[] rank;
+        private final double[] share;
+        private final double[] next;
+        private final double base;
+        private final double damping;
+        private final int lo;
+        private final int hi;
+
+        PullTask(Transpose transpose, double[] rank, double[] share, double[] next, double base, double damping,
+                int lo, int hi) {
+            this.transpose = transpose;
+            this.rank = rank;
+            this.share = share;
+            this.next = next;
+            this.base = base;
+            this.damping = damping;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override protected Double compute() {
+            if (hi - lo <= 1 || transpose.work(lo, hi) <= SEQUENTIAL_WORK) {
+                return pull();
+            }
+            int mid = (lo + hi) >>> 1;
+            PullTask left = new PullTask(transpose, rank, share, next, base, damping, lo, mid);
+            left.fork();
+            double right = new PullTask(transpose, rank, share, next, base, damping, mid, hi).compute();
+            return left.join() + right;
+        }
+
+        private double pull() {
+            int[] offsets = transpose.offsets;
+            int[] followers = transpose.followers;
+            double change = 0;
+            for (int k = lo; k < hi; k++) {
+                double sum = 0;
+                for (int i = offsets[k]; i < offsets[k + 1]; i++) {
+                    sum += share[followers[i]];
+                }
+                next[k] = base + damping * sum;
+                change += Math.abs(next[k] - rank[k]);
+            }
+            return change;
+        }
+    }
+}
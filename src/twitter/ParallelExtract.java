@@ -0,0 +1,192 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel versions of the Extract operations, for very large lists of tweets.
+ *
+ * The list is split recursively on a fork-join pool; each leaf computes a
+ * partial result (earliest and latest timestamp, or set of mentioned
+ * usernames) over its range, and partial results are merged on the way back
+ * up. Lists smaller than SEQUENTIAL_THRESHOLD are handed to Extract directly,
+ * since forking would cost more than it saves.
+ */
+public class ParallelExtract {
+
+    /**
+     * Lists with fewer tweets than this are processed sequentially by Extract.
+     */
+    public static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    /*
+     * Leaves are made about this many times smaller than a fair share per
+     * worker, so that idle workers can steal work from slow ones.
+     */
+    private static final int LEAVES_PER_THREAD = 8;
+
+    private ParallelExtract() {
+    }
+
+    /**
+     * Get the time period spanned by tweets, as Extract.getTimespan does,
+     * using the common fork-join pool.
+     *
+     * @param tweets
+     *            list of tweets with distinct ids, not modified by this method.
+     * @return a minimum-length time interval that contains the timestamp of
+     *         every tweet in the list.
+     * @throws IllegalArgumentException if the list of tweets is empty.
+     */
+    public static Timespan getTimespan(List<Tweet> tweets) {
+        return getTimespan(tweets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Get the time period spanned by tweets, as Extract.getTimespan does.
+     *
+     * @param tweets
+     *            list of tweets with distinct ids, not modified by this method.
+     * @param pool
+     *            pool to run on
+     * @return a minimum-length time interval that contains the timestamp of
+     *         every tweet in the list.
+     * @throws IllegalArgumentException if the list of tweets is empty.
+     */
+    public static Timespan getTimespan(List<Tweet> tweets, ForkJoinPool pool) {
+        if (tweets.size() < SEQUENTIAL_THRESHOLD) {
+            return Extract.getTimespan(tweets);
+        }
+        List<Tweet> list = randomAccess(tweets);
+        return pool.invoke(new TimespanTask(list, 0, list.size(), leafSize(list, pool)));
+    }
+
+    /**
+     * Get usernames mentioned in a list of tweets, as Extract.getMentionedUsers
+     * does, using the common fork-join pool.
+     *
+     * @param tweets
+     *            list of tweets with distinct ids, not modified by this method.
+     * @return the set of usernames who are mentioned in the text of the tweets,
+     *         each in lowercase.
+     */
+    public static Set<String> getMentionedUsers(List<Tweet> tweets) {
+        return getMentionedUsers(tweets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Get usernames mentioned in a list of tweets, as Extract.getMentionedUsers
+     * does.
+     *
+     * @param tweets
+     *            list of tweets with distinct ids, not modified by this method.
+     * @param pool
+     *            pool to run on
+     * @return the set of usernames who are mentioned in the text of the tweets,
+     *         each in lowercase.
+     */
+    public static Set<String> getMentionedUsers(List<Tweet> tweets, ForkJoinPool pool) {
+        if (tweets.size() < SEQUENTIAL_THRESHOLD) {
+            return Extract.getMentionedUsers(tweets);
+        }
+        List<Tweet> list = randomAccess(tweets);
+        return pool.invoke(new MentionsTask(list, 0, list.size(), leafSize(list, pool)));
+    }
+
+    /*
+     * @return tweets itself if it supports fast indexing, otherwise a copy that does
+     */
+    private static List<Tweet> randomAccess(List<Tweet> tweets) {
+        return tweets instanceof RandomAccess ? tweets : new ArrayList<>(tweets);
+    }
+
+    private static int leafSize(List<Tweet> tweets, ForkJoinPool pool) {
+        int leaves = pool.getParallelism() * LEAVES_PER_THREAD;
+        return Math.max(SEQUENTIAL_THRESHOLD / LEAVES_PER_THREAD, tweets.size() / leaves);
+    }
+
+    /*
+     * Computes the timespan of tweets[lo, hi), which is nonempty.
+     */
+    private static class TimespanTask extends RecursiveTask<Timespan> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Tweet> tweets;
+        private final int lo;
+        private final int hi;
+        private final int leafSize;
+
+        TimespanTask(List<Tweet> tweets, int lo, int hi, int leafSize) {
+            this.tweets = tweets;
+            this.lo = lo;
+            this.hi = hi;
+            this.leafSize = leafSize;
+        }
+
+        @Override protected Timespan compute() {
+            if (hi - lo <= leafSize) {
+                return Extract.getTimespan(tweets.subList(lo, hi));
+            }
+            int mid = (lo + hi) >>> 1;
+            TimespanTask left = new TimespanTask(tweets, lo, mid, leafSize);
+            left.fork();
+            Timespan right = new TimespanTask(tweets, mid, hi, leafSize).compute();
+            Timespan leftSpan = left.join();
+
+            Instant earliest = leftSpan.getStart().isAfter(right.getStart()) ? right.getStart() : leftSpan.getStart();
+            Instant latest = leftSpan.getEnd().isBefore(right.getEnd()) ? right.getEnd() : leftSpan.getEnd();
+            return new Timespan(earliest, latest);
+        }
+    }
+
+    /*
+     * Computes the set of lowercase usernames mentioned in tweets[lo, hi).
+     */
+    private static class MentionsTask extends RecursiveTask<Set<String>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Tweet> tweets;
+        private final int lo;
+        private final int hi;
+        private final int leafSize;
+
+        MentionsTask(List<Tweet> tweets, int lo, int hi, int leafSize) {
+            this.tweets = tweets;
+            this.lo = lo;
+            this.hi = hi;
+            this.leafSize = leafSize;
+        }
+
+        @Override protected Set<String> compute() {
+            if (hi - lo <= leafSize) {
+                UsernameTable mentions = new UsernameTable();
+                MentionScanner.MentionVisitor addMention = mentions::id;
+                for (int i = lo; i < hi; i++) {
+                    MentionScanner.scan(tweets.get(i).getText(), addMention);
+                }
+                return mentions.names();
+            }
+            int mid = (lo + hi) >>> 1;
+            MentionsTask left = new MentionsTask(tweets, lo, mid, leafSize);
+            left.fork();
+            Set<String> right = new MentionsTask(tweets, mid, hi, leafSize).compute();
+            Set<String> leftMentions = left.join();
+
+            // merge the smaller set into the larger one
+            if (leftMentions.size() < right.size()) {
+                right.addAll(leftMentions);
+                return right;
+            }
+            leftMentions.addAll(right);
+            return leftMentions;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel construction of the follows graph of SocialNetwork.guessFollowsGraph,
+ * for very large lists of tweets.
+ *
+ * The list is cut into leaves that run on a fork-join pool. Each leaf scans
+ * its tweets with its own UsernameTable and its own buffer of edges packed
+ * into longs, then sorts and deduplicates that buffer, so leaves share no
+ * state. The leaf tables are merged into one global table in list order,
+ * which gives every user the same id as a sequential build would; each leaf
+ * then rewrites its edges into global ids in parallel, and the combined
+ * buffer is sorted with Arrays.parallelSort, deduplicated and laid out as a
+ * FollowsGraph.
+ */
+public class ParallelSocialNetwork {
+
+    /**
+     * Lists with fewer tweets than this are processed sequentially.
+     */
+    public static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    /*
+     * Leaves are made about this many times smaller than a fair share per
+     * worker, so that idle workers can steal work from slow ones.
+     */
+    private static final int LEAVES_PER_THREAD = 8;
+
+    private ParallelSocialNetwork() {
+    }
+
+    /**
+     * Guess who might follow whom, as SocialNetwork.guessFollowsGraph does,
+     * using the common fork-join pool.
+     *
+     * @param tweets
+     *            a list of tweets providing the evidence, not modified by this
+     *            method.
+     * @return the social network that SocialNetwork.guessFollowsGraph returns
+     */
+    public static Map<String, Set<String>> guessFollowsGraph(List<Tweet> tweets) {
+        return buildFollowsGraph(tweets, ForkJoinPool.commonPool()).asMap();
+    }
+
+    /**
+     * Guess who might follow whom, as SocialNetwork.guessFollowsGraph does.
+     *
+     * @param tweets
+     *            a list of tweets providing the evidence, not modified by this
+     *            method.
+     * @param pool
+     *            pool to run on
+     * @return the social network that SocialNetwork.guessFollowsGraph returns
+     */
+    public static Map<String, Set<String>> guessFollowsGraph(List<Tweet> tweets, ForkJoinPool pool) {
+        return buildFollowsGraph(tweets, pool).asMap();
+    }
+
+    /**
+     * Build the graph of FollowsGraph.fromTweets in parallel.
+     *
+     * @param tweets
+     *            a list of tweets providing the evidence, not modified by this
+     *            method.
+     * @param pool
+     *            pool to scan tweets on; the final sort runs on the common
+     *            pool, as Arrays.parallelSort always does
+     * @return a graph equal to FollowsGraph.fromTweets(tweets), with the same
+     *         user ids
+     */
+    public static FollowsGraph buildFollowsGraph(List<Tweet> tweets, ForkJoinPool pool) {
+        if (tweets.size() < SEQUENTIAL_THRESHOLD) {
+            return FollowsGraph.fromTweets(tweets);
+        }
+        List<Tweet> list = tweets instanceof RandomAccess ? tweets : new ArrayList<>(tweets);
+        int leafSize = Math.max(SEQUENTIAL_THRESHOLD / LEAVES_PER_THREAD,
+                list.size() / (pool.getParallelism() * LEAVES_PER_THREAD));
+        int leafCount = (list.size() + leafSize - 1) / leafSize;
+
+        FollowsGraph.EdgeCollector[] leaves = new FollowsGraph.EdgeCollector[leafCount];
+        pool.invoke(new CollectEdges(list, leafSize, leaves, 0, leafCount));
+
+        // merge the leaf tables in list order, so ids follow first appearance
+        UsernameTable users = new UsernameTable();
+        int[][] globalIds = new int[leafCount][];
+        int[] edgeOffsets = new int[leafCount + 1];
+        for (int leaf = 0; leaf < leafCount; leaf++) {
+            UsernameTable local = leaves[leaf].users;
+            globalIds[leaf] = new int[local.size()];
+            for (int id = 0; id < local.size(); id++) {
+                globalIds[leaf][id] = users.id(local.name(id));
+            }
+            edgeOffsets[leaf + 1] = edgeOffsets[leaf] + leaves[leaf].size;
+        }
+
+        long[] edges = new long[edgeOffsets[leafCount]];
+        pool.invoke(new RemapEdges(leaves, globalIds, edgeOffsets, edges, 0, leafCount));
+        Arrays.parallelSort(edges);
+        return new FollowsGraph(users, edges, FollowsGraph.dedupSorted(edges, edges.length));
+    }
+
+    /*
+     * Fills leaves[lo, hi) with the sorted, distinct edges of the tweets in
+     * each leaf's range, in leaf-local ids.
+     */
+    private static class CollectEdges extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Tweet> tweets;
+        private final int leafSize;
+        private final FollowsGraph.EdgeCollector[] leaves;
+        private final int lo;
+        private final int hi;
+
+        CollectEdges(List<Tweet> tweets, int leafSize, FollowsGraph.EdgeCollector[] leaves, int lo, int hi) {
+            this.tweets = tweets;
+            this.leafSize = leafSize;
+            this.leaves = leaves;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override protected void compute() {
+            if (hi - lo == 1) {
+                FollowsGraph.EdgeCollector collector = new FollowsGraph.EdgeCollector(new UsernameTable());
+                int end = Math.min(tweets.size(), (lo + 1) * leafSize);
+                for (int i = lo * leafSize; i < end; i++) {
+                    collector.addTweet(tweets.get(i));
+                }
+                Arrays.sort(collector.edges, 0, collector.size);
+                collector.size = FollowsGraph.dedupSorted(collector.edges, collector.size);
+                leaves[lo] = collector;
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new CollectEdges(tweets, leafSize, leaves, lo, mid),
+                    new CollectEdges(tweets, leafSize, leaves, mid, hi));
+        }
+    }
+
+    /*
+     * Copies the edges of leaves[lo, hi) into edges, translated to global ids,
+     * with leaf i's edges at edges[edgeOffsets[i] .. edgeOffsets[i+1]).
+     */
+    private static class RemapEdges extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FollowsGraph.EdgeCollector[] leaves;
+        private final int[][] globalIds;
+        private final int[] edgeOffsets;
+        private final long[] edges;
+        private final int lo;
+        private final int hi;
+
+        RemapEdges(FollowsGraph.EdgeCollector[] leaves, int[][] globalIds, int[] edgeOffsets, long[] edges,
+                int lo, int hi) {
+            this.leaves = leaves;
+            this.globalIds = globalIds;
+            this.edgeOffsets = edgeOffsets;
+            this.edges = edges;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override protected void compute() {
+            if (hi - lo == 1) {
+                long[] local = leaves[lo].edges;
+                int[] ids = globalIds[lo];
+                int out = edgeOffsets[lo];
+                for (int i = 0; i < leaves[lo].size; i++) {
+                    long edge = local[i];
+                    edges[out++] = FollowsGraph.edge(ids[(int) (edge >>> 32)], ids[(int) edge]);
+                }
+                leaves[lo] = null; // let the local buffer be collected
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new RemapEdges(leaves, globalIds, edgeOffsets, edges, lo, mid),
+                    new RemapEdges(leaves, globalIds, edgeOffsets, edges, mid, hi));
+        }
+    }
+}
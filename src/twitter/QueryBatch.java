@@ -0,0 +1,242 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable set of TweetQuery queries compiled to run together, so that many
+ * queries against one list cost a single pass over it instead of one pass per
+ * query.
+ *
+ * Each query is routed by one of its conditions. Queries with an author
+ * condition are found by looking up each tweet's author in a table; queries
+ * with a keyword condition share one KeywordMatcher over all their keywords,
+ * which scans each tweet's text once; the remaining queries, such as
+ * timespan-only ones, see every tweet. A tweet is then tested against the
+ * other conditions of just the queries it was routed to.
+ */
+public class QueryBatch {
+
+    private final List<TweetQuery> queries;
+
+    private final UsernameTable authors;
+    private final int[] authorOffsets;
+    private final int[] authorQueries;
+
+    private final KeywordMatcher keywords;
+    private final int[] keywordOffsets;
+    private final int[] keywordQueries;
+
+    private final int[] scanQueries;
+
+    /* Abstraction function:
+     *    represents the queries in the list queries, in order, where query q is
+     *    routed by the author with id a in authors if q is in
+     *    authorQueries[authorOffsets[a] .. authorOffsets[a+1]), by the
+     *    keyword with index k in keywords if q is in
+     *    keywordQueries[keywordOffsets[k] .. keywordOffsets[k+1]), and to
+     *    every tweet if q is in scanQueries
+     * Rep invariant:
+     *    authorOffsets.length == authors.size() + 1,
+     *      keywordOffsets.length == keywords.keywordCount() + 1, and both are
+     *      nondecreasing from 0 to the length of their query array
+     *    every satisfiable query is routed in exactly one of the three ways,
+     *      and an unsatisfiable one in none
+     *    the keywords of keywords are distinct ignoring case
+     * Safety from rep exposure:
+     *    queries is a private copy of the caller's list, queries are immutable,
+     *      and no field is ever returned
+     */
+
+    /**
+     * Compile a set of queries.
+     *
+     * @param queries
+     *            queries to run together; the list is not modified, and later
+     *            changes to it do not affect this batch
+     */
+    public QueryBatch(List<TweetQuery> queries) {
+        this.queries = new ArrayList<>(queries);
+        int n = this.queries.size();
+
+        this.authors = new UsernameTable();
+        int[] authorOf = new int[n];
+        Map<String, Integer> keywordIds = new HashMap<>();
+        List<String> distinctKeywords = new ArrayList<>();
+        List<int[]> keywordsOf = new ArrayList<>(n);
+        int scans = 0;
+        for (int q = 0; q < n; q++) {
+            TweetQuery query = this.queries.get(q);
+            String author = query.routingAuthor();
+            List<String> words = query.routingWords();
+            authorOf[q] = -1;
+            keywordsOf.add(null);
+            if (query.isUnsatisfiable()) {
+                continue;
+            } else if (author != null) {
+                authorOf[q] = authors.id(author);
+            } else if (words != null) {
+                int[] ids = new int[words.size()];
+                for (int w = 0; w < ids.length; w++) {
+                    String folded = Words.fold(words.get(w));
+                    Integer id = keywordIds.get(folded);
+                    if (id == null) {
+                        id = distinctKeywords.size();
+                        keywordIds.put(folded, id);
+                        distinctKeywords.add(folded);
+                    }
+                    ids[w] = id;
+                }
+                keywordsOf.set(q, distinctSorted(ids));
+            } else {
+                scans++;
+            }
+        }
+
+        this.authorOffsets = new int[authors.size() + 1];
+        this.keywordOffsets = new int[distinctKeywords.size() + 1];
+        for (int q = 0; q < n; q++) {
+            if (authorOf[q] >= 0) {
+                authorOffsets[authorOf[q] + 1]++;
+            } else if (keywordsOf.get(q) != null) {
+                for (int k : keywordsOf.get(q)) {
+                    keywordOffsets[k + 1]++;
+                }
+            }
+        }
+        prefixSums(authorOffsets);
+        prefixSums(keywordOffsets);
+
+        this.authorQueries = new int[authorOffsets[authorOffsets.length - 1]];
+        this.keywordQueries = new int[keywordOffsets[keywordOffsets.length - 1]];
+        this.scanQueries = new int[scans];
+        int[] nextAuthor = Arrays.copyOf(authorOffsets, authorOffsets.length - 1);
+        int[] nextKeyword = Arrays.copyOf(keywordOffsets, keywordOffsets.length - 1);
+        int nextScan = 0;
+        for (int q = 0; q < n; q++) {
+            if (authorOf[q] >= 0) {
+                authorQueries[nextAuthor[authorOf[q]]++] = q;
+            } else if (keywordsOf.get(q) != null) {
+                for (int k : keywordsOf.get(q)) {
+                    keywordQueries[nextKeyword[k]++] = q;
+                }
+            } else if (!this.queries.get(q).isUnsatisfiable()) {
+                scanQueries[nextScan++] = q;
+            }
+        }
+        this.keywords = new KeywordMatcher(distinctKeywords);
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert authorOffsets.length == authors.size() + 1;
+        assert keywordOffsets.length == keywords.keywordCount() + 1;
+        assert authorOffsets[authorOffsets.length - 1] == authorQueries.length;
+        assert keywordOffsets[keywordOffsets.length - 1] == keywordQueries.length;
+    }
+
+    /**
+     * @return number of queries in this batch
+     */
+    public int size() {
+        return queries.size();
+    }
+
+    /**
+     * Run every query in this batch in one pass over a list.
+     *
+     * @param tweets
+     *            a list of tweets, not modified by this method.
+     * @return a list of size() results, where the i-th result holds all and
+     *         only the tweets in the list that the i-th query matches, in the
+     *         same order as in the input list.
+     */
+    public List<List<Tweet>> filter(List<Tweet> tweets) {
+        List<List<Tweet>> results = new ArrayList<>(queries.size());
+        for (int q = 0; q < queries.size(); q++) {
+            results.add(new ArrayList<Tweet>());
+        }
+        KeywordRouter router = new KeywordRouter(results);
+        for (Tweet tweet : tweets) {
+            if (authorQueries.length > 0) {
+                int author = authors.find(tweet.getAuthor());
+                if (author >= 0) {
+                    for (int i = authorOffsets[author]; i < authorOffsets[author + 1]; i++) {
+                        offer(authorQueries[i], tweet, results);
+                    }
+                }
+            }
+            if (keywordQueries.length > 0) {
+                router.route(tweet);
+            }
+            for (int q : scanQueries) {
+                offer(q, tweet, results);
+            }
+        }
+        return results;
+    }
+
+    private void offer(int q, Tweet tweet, List<List<Tweet>> results) {
+        if (queries.get(q).matchesAfterRouting(tweet)) {
+            results.get(q).add(tweet);
+        }
+    }
+
+    /*
+     * Routes one tweet at a time to the queries of the keywords it contains,
+     * offering it to each such query once however many of its keywords match.
+     */
+    private class KeywordRouter implements IntConsumer {
+        private final List<List<Tweet>> results;
+        private final int[] lastRouted;
+        private int current = -1;
+        private Tweet tweet;
+
+        KeywordRouter(List<List<Tweet>> results) {
+            this.results = results;
+            this.lastRouted = new int[queries.size()];
+            Arrays.fill(lastRouted, -1);
+        }
+
+        void route(Tweet tweet) {
+            this.tweet = tweet;
+            current++;
+            keywords.forEachMatch(tweet.getText(), this);
+        }
+
+        @Override public void accept(int keyword) {
+            for (int i = keywordOffsets[keyword]; i < keywordOffsets[keyword + 1]; i++) {
+                int q = keywordQueries[i];
+                if (lastRouted[q] != current) {
+                    lastRouted[q] = current;
+                    offer(q, tweet, results);
+                }
+            }
+        }
+    }
+
+    private static int[] distinctSorted(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (distinct == 0 || sorted[i] != sorted[distinct - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    private static void prefixSums(int[] offsets) {
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+    }
+}
@@ -41,7 +41,7 @@ public class SocialNetwork {
      *         either authors or @-mentions in the list of tweets.
      */
     public static Map<String, Set<String>> guessFollowsGraph(List<Tweet> tweets) {
-        throw new RuntimeException("not implemented");
+        return FollowsGraph.fromTweets(tweets).asMap();
     }
 
     /**
@@ -54,7 +54,23 @@ public class SocialNetwork {
      *         descending order of follower count.
      */
     public static List<String> influencers(Map<String, Set<String>> followsGraph) {
-        throw new RuntimeException("not implemented");
+        return influencers(followsGraph, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find the k people in a social network who have the most followers,
+     * without sorting everyone.
+     * 
+     * @param followsGraph
+     *            a social network (as defined above)
+     * @param k
+     *            number of people wanted, k >= 0
+     * @return the first min(k, n) usernames of influencers(followsGraph), where
+     *         n is the number of distinct usernames in followsGraph; people
+     *         with equally many followers are in ascending order of username.
+     */
+    public static List<String> influencers(Map<String, Set<String>> followsGraph, int k) {
+        return FollowsGraph.of(followsGraph).influencers(k);
     }
 
 }
@@ -0,0 +1,203 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable index of a list of tweets by timestamp, for answering many
+ * Filter.inTimespan queries (such as sliding windows) against the same corpus.
+ *
+ * Tweet positions are kept sorted by timestamp in primitive arrays. A query
+ * binary-searches both ends of the timespan, so it takes O(log n + m log m)
+ * time for m results instead of a scan of the whole corpus.
+ */
+public class TimeIndex {
+
+    private final List<Tweet> tweets;
+    private final long[] seconds;
+    private final int[] nanos;
+    private final int[] positions;
+
+    /* Abstraction function:
+     *    represents the corpus tweets, where the i-th earliest tweet is
+     *    tweets.get(positions[i]), with timestamp seconds[i] + nanos[i]
+     * Rep invariant:
+     *    seconds, nanos and positions all have length tweets.size()
+     *    positions is a permutation of 0 .. tweets.size()-1
+     *    (seconds[i], nanos[i]) is the timestamp of tweets.get(positions[i]),
+     *      and is nondecreasing in i; equal timestamps keep corpus order
+     * Safety from rep exposure:
+     *    tweets is a private copy of the caller's list, and is only returned
+     *      through new lists; arrays are copied before being returned
+     */
+
+    /**
+     * Build an index of a corpus.
+     *
+     * @param tweets
+     *            the corpus; not modified by this constructor, and later
+     *            changes to it do not affect the index
+     */
+    public TimeIndex(List<Tweet> tweets) {
+        this.tweets = new ArrayList<>(tweets);
+        int n = this.tweets.size();
+        long[] corpusSeconds = new long[n];
+        int[] corpusNanos = new int[n];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            Instant timestamp = this.tweets.get(i).getTimestamp();
+            corpusSeconds[i] = timestamp.getEpochSecond();
+            corpusNanos[i] = timestamp.getNano();
+            order[i] = i;
+        }
+        sortByTime(order, new int[n], 0, n, corpusSeconds, corpusNanos);
+
+        this.positions = order;
+        this.seconds = new long[n];
+        this.nanos = new int[n];
+        for (int i = 0; i < n; i++) {
+            seconds[i] = corpusSeconds[order[i]];
+            nanos[i] = corpusNanos[order[i]];
+        }
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert seconds.length == tweets.size();
+        assert nanos.length == tweets.size();
+        assert positions.length == tweets.size();
+    }
+
+    /**
+     * Find tweets that were sent during a particular timespan, as
+     * Filter.inTimespan does.
+     *
+     * @param timespan
+     *            timespan
+     * @return all and only the tweets in the corpus that were sent during the
+     *         timespan, in the same order as in the corpus.
+     */
+    public List<Tweet> inTimespan(Timespan timespan) {
+        int[] matches = positions(timespan);
+        List<Tweet> result = new ArrayList<>(matches.length);
+        for (int position : matches) {
+            result.add(tweets.get(position));
+        }
+        return result;
+    }
+
+    /**
+     * @param timespan
+     *            timespan
+     * @return indices in the corpus of the tweets sent during timespan, in
+     *         increasing order
+     */
+    public int[] positions(Timespan timespan) {
+        int lo = firstAtOrAfter(timespan.getStart());
+        int hi = firstAfter(timespan.getEnd());
+        if (hi <= lo) {
+            return new int[0];
+        }
+        int[] matches = Arrays.copyOfRange(positions, lo, hi);
+        Arrays.sort(matches);
+        return matches;
+    }
+
+    /**
+     * @param timespan
+     *            timespan
+     * @return number of tweets in the corpus sent during timespan
+     */
+    public int count(Timespan timespan) {
+        return Math.max(0, firstAfter(timespan.getEnd()) - firstAtOrAfter(timespan.getStart()));
+    }
+
+    /**
+     * @return number of tweets in the corpus
+     */
+    public int size() {
+        return tweets.size();
+    }
+
+    /*
+     * @return the least i such that the i-th earliest timestamp is >= instant,
+     *         or size() if there is none
+     */
+    private int firstAtOrAfter(Instant instant) {
+        return search(instant.getEpochSecond(), instant.getNano(), false);
+    }
+
+    /*
+     * @return the least i such that the i-th earliest timestamp is > instant,
+     *         or size() if there is none
+     */
+    private int firstAfter(Instant instant) {
+        return search(instant.getEpochSecond(), instant.getNano(), true);
+    }
+
+    /*
+     * Binary search for the least i whose timestamp is > (second, nano) if
+     * strictlyAfter, otherwise >= (second, nano).
+     */
+    private int search(long second, int nano, boolean strictlyAfter) {
+        int lo = 0;
+        int hi = seconds.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compare(seconds[mid], nanos[mid], second, nano);
+            if (cmp < 0 || (strictlyAfter && cmp == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int compare(long secondsA, int nanosA, long secondsB, int nanosB) {
+        int cmp = Long.compare(secondsA, secondsB);
+        return cmp != 0 ? cmp : Integer.compare(nanosA, nanosB);
+    }
+
+    /*
+     * Stable merge sort of order[lo, hi) by the timestamp each entry points to.
+     */
+    private static void sortByTime(int[] order, int[] scratch, int lo, int hi, long[] seconds, int[] nanos) {
+        if (hi - lo < 2) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        sortByTime(order, scratch, lo, mid, seconds, nanos);
+        sortByTime(order, scratch, mid, hi, seconds, nanos);
+        int a = order[mid - 1];
+        int b = order[mid];
+        if (compare(seconds[a], nanos[a], seconds[b], nanos[b]) <= 0) {
+            return; // already in order, which is common for time-ordered feeds
+        }
+        System.arraycopy(order, lo, scratch, lo, hi - lo);
+        int left = lo;
+        int right = mid;
+        for (int i = lo; i < hi; i++) {
+            if (right >= hi) {
+                order[i] = scratch[left++];
+            } else if (left >= mid) {
+                order[i] = scratch[right++];
+            } else {
+                int l = scratch[left];
+                int r = scratch[right];
+                if (compare(seconds[r], nanos[r], seconds[l], nanos[l]) < 0) {
+                    order[i] = r;
+                    right++;
+                } else {
+                    order[i] = l;
+                    left++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+/**
+ * Selects the first k of n ids under a total order with a bounded heap, in
+ * O(n log k) time and O(k) space, instead of sorting all n.
+ */
+class TopK {
+
+    /**
+     * A total order on ids.
+     */
+    interface IdOrder {
+        /**
+         * @return negative if id a comes before id b, positive if after, and 0
+         *         only if a == b
+         */
+        int compare(int a, int b);
+    }
+
+    private TopK() {
+    }
+
+    /**
+     * @param n
+     *            number of ids; ids range over 0 .. n-1
+     * @param k
+     *            number of ids wanted, k >= 0
+     * @param order
+     *            total order on the ids
+     * @return the first min(k, n) ids in order, sorted by order
+     */
+    static int[] select(int n, int k, IdOrder order) {
+        int size = Math.min(k, n);
+        // max-heap by order: the root is the last of the ids kept so far
+        int[] heap = new int[size];
+        for (int id = 0; id < n && size > 0; id++) {
+            if (id < size) {
+                heap[id] = id;
+                siftUp(heap, id, order);
+            } else if (order.compare(id, heap[0]) < 0) {
+                heap[0] = id;
+                siftDown(heap, 0, size, order);
+            }
+        }
+        for (int end = size - 1; end > 0; end--) {
+            int last = heap[0];
+            heap[0] = heap[end];
+            heap[end] = last;
+            siftDown(heap, 0, end, order);
+        }
+        return heap;
+    }
+
+    private static void siftUp(int[] heap, int i, IdOrder order) {
+        int id = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (order.compare(heap[parent], id) >= 0) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = id;
+    }
+
+    private static void siftDown(int[] heap, int i, int size, IdOrder order) {
+        int id = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(heap[child], id) <= 0) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = id;
+    }
+}
@@ -0,0 +1,185 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable report of the facts Main prints about a list of tweets: their
+ * timespan, the users they mention, the follows graph they suggest, and each
+ * user's follower count.
+ *
+ * Computing these with Extract.getTimespan, Extract.getMentionedUsers,
+ * SocialNetwork.guessFollowsGraph and SocialNetwork.influencers walks the
+ * list, and scans every text, several times over. of() makes a single pass
+ * instead: each tweet's timestamp is folded into the timespan, its author is
+ * interned once, and its text is scanned once, each mention both marking the
+ * user as mentioned and recording a follows edge. Only the edge buffer, which
+ * is much smaller than the tweets, is then sorted into a FollowsGraph, whose
+ * follower counts are computed once and kept.
+ */
+public class TweetAnalysis {
+
+    private final int tweetCount;
+    private final Timespan timespan;
+    private final Set<String> mentionedUsers;
+    private final FollowsGraph graph;
+    private final int[] followerCounts;
+
+    /* Abstraction function:
+     *    represents the analysis of tweetCount tweets, spanning timespan
+     *    (null if there are none), mentioning mentionedUsers, suggesting graph,
+     *    in which the user with id k has followerCounts[k] followers
+     * Rep invariant:
+     *    tweetCount >= 0; timespan == null iff tweetCount == 0
+     *    followerCounts equals graph.followerCounts()
+     *    every element of mentionedUsers is a lowercase user of graph
+     * Safety from rep exposure:
+     *    timespan and graph are immutable; mentionedUsers is unmodifiable;
+     *    followerCounts is only returned as a copy
+     */
+
+    private TweetAnalysis(int tweetCount, Timespan timespan, Set<String> mentionedUsers, FollowsGraph graph) {
+        this.tweetCount = tweetCount;
+        this.timespan = timespan;
+        this.mentionedUsers = mentionedUsers;
+        this.graph = graph;
+        this.followerCounts = graph.followerCounts();
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert tweetCount >= 0;
+        assert (timespan == null) == (tweetCount == 0);
+        assert followerCounts.length == graph.userCount();
+        assert mentionedUsers.size() <= graph.userCount();
+    }
+
+    /**
+     * Analyze tweets in a single pass.
+     *
+     * @param tweets
+     *            list of tweets with distinct ids, not modified by this method.
+     * @return the analysis of tweets
+     */
+    public static TweetAnalysis of(List<Tweet> tweets) {
+        Pass pass = new Pass();
+        for (Tweet tweet : tweets) {
+            pass.addTweet(tweet);
+        }
+        Timespan timespan = tweets.isEmpty() ? null : new Timespan(pass.earliest, pass.latest);
+        Set<String> mentioned = new HashSet<>();
+        for (int id = pass.mentioned.nextSetBit(0); id >= 0; id = pass.mentioned.nextSetBit(id + 1)) {
+            mentioned.add(pass.users.name(id));
+        }
+        FollowsGraph graph = FollowsGraph.fromEdges(pass.users, pass.edges, pass.size);
+        return new TweetAnalysis(tweets.size(), timespan, Collections.unmodifiableSet(mentioned), graph);
+    }
+
+    /**
+     * @return number of tweets analyzed
+     */
+    public int tweetCount() {
+        return tweetCount;
+    }
+
+    /**
+     * @return the timespan Extract.getTimespan returns for the tweets, or null
+     *         if there are no tweets
+     */
+    public Timespan timespan() {
+        return timespan;
+    }
+
+    /**
+     * @return an unmodifiable set equal to Extract.getMentionedUsers of the
+     *         tweets, in lowercase
+     */
+    public Set<String> mentionedUsers() {
+        return mentionedUsers;
+    }
+
+    /**
+     * @return the graph FollowsGraph.fromTweets returns for the tweets, with
+     *         the same user ids; graph().asMap() is the social network
+     *         SocialNetwork.guessFollowsGraph returns
+     */
+    public FollowsGraph graph() {
+        return graph;
+    }
+
+    /**
+     * @param username
+     *            Twitter username, in any case
+     * @return number of users that follow username, or 0 if username is not
+     *         in the graph
+     */
+    public int followerCount(String username) {
+        int id = graph.id(username);
+        return id < 0 ? 0 : followerCounts[id];
+    }
+
+    /**
+     * @return a new array whose element k is the number of followers of the
+     *         user with id k in graph()
+     */
+    public int[] followerCounts() {
+        return followerCounts.clone();
+    }
+
+    /**
+     * Find the users with the most followers, without recounting them.
+     *
+     * @param k
+     *            number of users wanted, k >= 0
+     * @return the same list as graph().influencers(k)
+     */
+    public List<String> influencers(int k) {
+        return graph.influencers(k, followerCounts);
+    }
+
+    /*
+     * @see Object.toString()
+     */
+    @Override public String toString() {
+        return "TweetAnalysis[" + tweetCount + " tweets, " + timespan + ", " + mentionedUsers.size()
+                + " mentioned, " + graph + "]";
+    }
+
+    /*
+     * State of the single pass: the follows edges and user ids, collected as
+     * by FollowsGraph.EdgeCollector, plus the timespan so far and the ids
+     * mentioned so far.
+     */
+    private static class Pass extends FollowsGraph.EdgeCollector {
+        final BitSet mentioned = new BitSet();
+        Instant earliest;
+        Instant latest;
+
+        Pass() {
+            super(new UsernameTable());
+        }
+
+        @Override void addTweet(Tweet tweet) {
+            Instant time = tweet.getTimestamp();
+            if (earliest == null || time.isBefore(earliest)) {
+                earliest = time;
+            }
+            if (latest == null || time.isAfter(latest)) {
+                latest = time;
+            }
+            super.addTweet(tweet);
+        }
+
+        @Override void addMention(int id) {
+            mentioned.set(id);
+            super.addMention(id);
+        }
+    }
+}
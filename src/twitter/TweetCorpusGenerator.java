@@ -0,0 +1,517 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+
+/**
+ * Immutable description of a synthetic tweet corpus, for load tests that need
+ * far more tweets than the sample server returns, offline.
+ *
+ * Authors and mention targets are drawn from a Zipf distribution over a fixed
+ * population of users, so a few users are very active and very mentioned, as
+ * on Twitter. Timestamps advance by exponentially distributed gaps, with
+ * optional jitter that puts tweets slightly out of order. Texts are at most
+ * 140 chars of filler words, @-mentions, hyphenated handles in varying case,
+ * email addresses that must not be taken for mentions, and optionally a
+ * keyword planted in a given fraction of tweets for Filter.containing.
+ *
+ * Tweets are generated lazily, so a corpus of any size can be iterated or
+ * written to disk in memory proportional to the number of users. Equal
+ * generators produce equal corpora.
+ *
+ * Usage from the command line:
+ *   java twitter.TweetCorpusGenerator file count [seed [users]] [--ndjson]
+ */
+public class TweetCorpusGenerator {
+
+    /**
+     * Longest text generated, as on Twitter when these tweets were sampled.
+     */
+    public static final int MAX_TEXT_LENGTH = 140;
+
+    private static final String[] NAMES = { "alyssa", "bbitdiddle", "ernie", "bert", "rivest", "obama",
+        "cookie", "grover", "elmo", "oscar", "zoe", "telly", "kermit", "piggy", "gonzo", "fozzie" };
+    private static final String[] WORDS = { "talk", "in", "minutes", "about", "the", "pset", "is", "due",
+        "#hype", "mit", "6.005", "lecture", "today", "so", "much", "fun", "reasonable", "to", "a", "new",
+        "paper", "on", "crypto", "tonight", "who", "else", "going", "?", "!", "lol" };
+    private static final String[] MAIL_DOMAINS = { "mit.edu", "csail.mit.edu", "example.com" };
+
+    private final long seed;
+    private final int users;
+    private final double zipfExponent;
+    private final double mentionsPerTweet;
+    private final double emailRate;
+    private final Instant start;
+    private final Duration meanInterval;
+    private final Duration jitter;
+    private final String keyword;
+    private final double keywordRate;
+
+    /* Abstraction function:
+     *    represents the infinite sequence of tweets drawn, with the given
+     *    seed, from users users ranked by a Zipf(zipfExponent) distribution,
+     *    with mentionsPerTweet mean mentions and an email address in a
+     *    fraction emailRate of tweets, the first at start and the next at
+     *    mean gaps of meanInterval, each displaced by up to +-jitter, with
+     *    the word keyword in a fraction keywordRate of tweets
+     * Rep invariant:
+     *    users >= 1, zipfExponent >= 0,
+     *    0 <= mentionsPerTweet <= MAX_TEXT_LENGTH / 2,
+     *    0 <= emailRate <= 1, meanInterval and jitter are nonnegative
+     *    0 <= keywordRate <= 1, and keyword is a nonempty word of at most
+     *    MAX_TEXT_LENGTH / 2 chars without spaces, or null iff keywordRate == 0
+     * Safety from rep exposure:
+     *    all fields are private, final and immutable
+     */
+
+    /**
+     * Make a generator with default settings: 10,000 users with Zipf exponent
+     * 1.0, 1.5 mentions per tweet, an email address in 10% of tweets, and
+     * tweets about one second apart starting 2016-02-17T10:00:00Z, without
+     * jitter or keyword.
+     *
+     * @param seed
+     *            random seed
+     */
+    public TweetCorpusGenerator(long seed) {
+        this(seed, 10_000, 1.0, 1.5, 0.1, Instant.parse("2016-02-17T10:00:00Z"), Duration.ofSeconds(1),
+                Duration.ZERO, null, 0);
+    }
+
+    private TweetCorpusGenerator(long seed, int users, double zipfExponent, double mentionsPerTweet,
+            double emailRate, Instant start, Duration meanInterval, Duration jitter, String keyword,
+            double keywordRate) {
+        this.seed = seed;
+        this.users = users;
+        this.zipfExponent = zipfExponent;
+        this.mentionsPerTweet = mentionsPerTweet;
+        this.emailRate = emailRate;
+        this.start = start;
+        this.meanInterval = meanInterval;
+        this.jitter = jitter;
+        this.keyword = keyword;
+        this.keywordRate = keywordRate;
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert users >= 1 && zipfExponent >= 0;
+        assert mentionsPerTweet >= 0 && mentionsPerTweet <= MAX_TEXT_LENGTH / 2;
+        assert emailRate >= 0 && emailRate <= 1;
+        assert !meanInterval.isNegative() && !jitter.isNegative();
+        assert keywordRate >= 0 && keywordRate <= 1;
+        assert (keyword == null) == (keywordRate == 0);
+    }
+
+    /**
+     * @param users
+     *            number of distinct users, >= 1; memory used while generating
+     *            is proportional to it
+     * @param zipfExponent
+     *            skew of authors and mention targets, >= 0: the user of rank
+     *            r is chosen with probability proportional to 1 / r^zipfExponent,
+     *            so 0 is uniform
+     * @return a generator like this one but with that user population
+     */
+    public TweetCorpusGenerator withUsers(int users, double zipfExponent) {
+        if (users < 1 || !(zipfExponent >= 0)) {
+            throw new IllegalArgumentException("requires users >= 1 and zipfExponent >= 0");
+        }
+        return new TweetCorpusGenerator(seed, users, zipfExponent, mentionsPerTweet, emailRate, start,
+                meanInterval, jitter, keyword, keywordRate);
+    }
+
+    /**
+     * @param mentionsPerTweet
+     *            mean number of @-mentions per tweet, 0 <= mentionsPerTweet
+     *            <= MAX_TEXT_LENGTH / 2; mentions that do not fit in
+     *            MAX_TEXT_LENGTH chars are dropped
+     * @param emailRate
+     *            fraction of tweets that include an email address, 0..1
+     * @return a generator like this one but with those text settings
+     */
+    public TweetCorpusGenerator withText(double mentionsPerTweet, double emailRate) {
+        if (!(mentionsPerTweet >= 0 && mentionsPerTweet <= MAX_TEXT_LENGTH / 2)
+                || !(emailRate >= 0 && emailRate <= 1)) {
+            throw new IllegalArgumentException("requires 0 <= mentionsPerTweet <= " + MAX_TEXT_LENGTH / 2
+                    + " and 0 <= emailRate <= 1");
+        }
+        return new TweetCorpusGenerator(seed, users, zipfExponent, mentionsPerTweet, emailRate, start,
+                meanInterval, jitter, keyword, keywordRate);
+    }
+
+    /**
+     * @param start
+     *            timestamp of the first tweet, before jitter
+     * @param meanInterval
+     *            mean time between consecutive tweets, >= 0; gaps are
+     *            exponentially distributed
+     * @param jitter
+     *            each timestamp is displaced uniformly by up to +-jitter, >= 0,
+     *            so tweets closer together than that may be out of order;
+     *            timestamps are truncated to whole seconds
+     * @return a generator like this one but with those timestamp settings
+     */
+    public TweetCorpusGenerator withTimestamps(Instant start, Duration meanInterval, Duration jitter) {
+        if (meanInterval.isNegative() || jitter.isNegative()) {
+            throw new IllegalArgumentException("requires nonnegative meanInterval and jitter");
+        }
+        return new TweetCorpusGenerator(seed, users, zipfExponent, mentionsPerTweet, emailRate, start,
+                meanInterval, jitter, keyword, keywordRate);
+    }
+
+    /**
+     * @param keyword
+     *            word to plant in tweets: nonempty, without spaces, and at
+     *            most MAX_TEXT_LENGTH / 2 chars
+     * @param rate
+     *            fraction of tweets whose text contains keyword as a whole
+     *            word, 0..1; 0 plants it nowhere
+     * @return a generator like this one but with that keyword setting
+     */
+    public TweetCorpusGenerator withKeyword(String keyword, double rate) {
+        if (keyword.isEmpty() || keyword.length() > MAX_TEXT_LENGTH / 2
+                || keyword.chars().anyMatch(c -> Words.isSpace((char) c)) || !(rate >= 0 && rate <= 1)) {
+            throw new IllegalArgumentException("requires a nonempty keyword of at most " + MAX_TEXT_LENGTH / 2
+                    + " chars without spaces, and 0 <= rate <= 1");
+        }
+        return new TweetCorpusGenerator(seed, users, zipfExponent, mentionsPerTweet, emailRate, start,
+                meanInterval, jitter, rate == 0 ? null : keyword, rate);
+    }
+
+    /**
+     * @param rank
+     *            rank of a user, 0 <= rank < number of users
+     * @return that user's username, in lowercase; usernames beyond the first
+     *         few are hyphenated
+     */
+    public static String username(int rank) {
+        String name = NAMES[rank % NAMES.length];
+        return rank < NAMES.length ? name : name + "-" + (rank / NAMES.length);
+    }
+
+    /**
+     * @param count
+     *            number of tweets, >= 0
+     * @return an iterator over the first count tweets of this corpus, with ids
+     *         1 .. count, generated as they are requested
+     */
+    public Iterator<Tweet> iterator(long count) {
+        return new Tweets(count);
+    }
+
+    /**
+     * @param count
+     *            number of tweets, >= 0
+     * @return a sequential stream of the first count tweets of this corpus,
+     *         generated as they are consumed
+     */
+    public Stream<Tweet> tweets(long count) {
+        Spliterator<Tweet> spliterator = Spliterators.spliterator(iterator(count), count,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Write the first count tweets of this corpus as a JSON array, in the
+     * format TweetReader and TweetExtractor parse.
+     *
+     * @param file
+     *            file to create or overwrite
+     * @param count
+     *            number of tweets, >= 0
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void writeJson(Path file, long count) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeJson(iterator(count), out);
+        }
+    }
+
+    /**
+     * Write the first count tweets of this corpus as newline-delimited JSON,
+     * one object per line, in the format TweetFileReader parses.
+     *
+     * @param file
+     *            file to create or overwrite
+     * @param count
+     *            number of tweets, >= 0
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void writeNdjson(Path file, long count) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeNdjson(iterator(count), out);
+        }
+    }
+
+    /**
+     * Write tweets as a JSON array in the sample server's format, which
+     * TweetReader and TweetExtractor parse: each tweet is an object with id,
+     * created_at, text and a flat "user.screen_name" key.
+     *
+     * @param tweets
+     *            tweets to write, consumed by this method
+     * @param out
+     *            destination; flushed but not closed
+     */
+    public static void writeJson(Iterator<Tweet> tweets, Writer out) {
+        JsonGenerator json = Json.createGenerator(new UnclosedWriter(out));
+        json.writeStartArray();
+        while (tweets.hasNext()) {
+            writeTweet(json.writeStartObject(), tweets.next()).writeEnd();
+        }
+        json.writeEnd();
+        json.close();
+    }
+
+    /**
+     * Write tweets as newline-delimited JSON, one object per line, with the
+     * keys of writeJson.
+     *
+     * @param tweets
+     *            tweets to write, consumed by this method
+     * @param out
+     *            destination; flushed but not closed
+     * @throws IOException
+     *             if out cannot be written
+     */
+    public static void writeNdjson(Iterator<Tweet> tweets, Writer out) throws IOException {
+        JsonGeneratorFactory factory = Json.createGeneratorFactory(Collections.<String, Object>emptyMap());
+        StringWriter line = new StringWriter();
+        while (tweets.hasNext()) {
+            line.getBuffer().setLength(0);
+            JsonGenerator json = factory.createGenerator(line);
+            writeTweet(json.writeStartObject(), tweets.next()).writeEnd();
+            json.close();
+            out.append(line.getBuffer()).append('\n');
+        }
+        out.flush();
+    }
+
+    private static JsonGenerator writeTweet(JsonGenerator json, Tweet tweet) {
+        return json.write("id", tweet.getId())
+                .write("created_at", CreatedAtParser.FORMAT.format(tweet.getTimestamp().atOffset(ZoneOffset.UTC)))
+                .write("text", tweet.getText())
+                .write("user.screen_name", tweet.getAuthor());
+    }
+
+    /**
+     * Generate a corpus file.
+     *
+     * @param args
+     *            file count [seed [users]] [--ndjson]
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        boolean ndjson = Arrays.asList(args).contains("--ndjson");
+        String[] positional = Arrays.stream(args).filter(arg -> !arg.startsWith("--")).toArray(String[]::new);
+        if (positional.length < 2) {
+            System.err.println("usage: TweetCorpusGenerator file count [seed [users]] [--ndjson]");
+            System.exit(2);
+        }
+        Path file = Paths.get(positional[0]);
+        long count = Long.parseLong(positional[1]);
+        TweetCorpusGenerator generator = new TweetCorpusGenerator(positional.length > 2 ? Long.parseLong(positional[2]) : 0);
+        if (positional.length > 3) {
+            generator = generator.withUsers(Integer.parseInt(positional[3]), 1.0);
+        }
+        if (ndjson) {
+            generator.writeNdjson(file, count);
+        } else {
+            generator.writeJson(file, count);
+        }
+    }
+
+    /*
+     * Generates tweets one at a time from a fresh Random(seed).
+     */
+    private class Tweets implements Iterator<Tweet> {
+        private final long count;
+        private final Random random = new Random(seed);
+        private final double[] cumulative = zipfCumulative();
+        private final StringBuilder text = new StringBuilder(MAX_TEXT_LENGTH);
+        // every mention, an email address, and filler words of at least one char
+        private final String[] tokens = new String[(int) Math.ceil(mentionsPerTweet) + 1 + MAX_TEXT_LENGTH];
+        private long produced = 0;
+        private double clockSeconds = 0;
+
+        Tweets(long count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("requires count >= 0");
+            }
+            this.count = count;
+        }
+
+        @Override public boolean hasNext() {
+            return produced < count;
+        }
+
+        @Override public Tweet next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long id = ++produced;
+            String author = withRandomCase(username(zipfRank()));
+            Instant timestamp = nextTimestamp();
+            return new Tweet(id, author, nextText(), timestamp);
+        }
+
+        /*
+         * Whole seconds, the precision of created_at in the sample server's
+         * format, so that tweets survive a round trip through JSON.
+         */
+        private Instant nextTimestamp() {
+            if (produced > 1) {
+                clockSeconds += -Math.log(1 - random.nextDouble()) * seconds(meanInterval);
+            }
+            double displaced = clockSeconds;
+            if (!jitter.isZero()) {
+                displaced += (2 * random.nextDouble() - 1) * seconds(jitter);
+            }
+            return start.plusSeconds((long) Math.floor(displaced));
+        }
+
+        /*
+         * Shuffled mentions, an email address and filler words, up to
+         * MAX_TEXT_LENGTH chars, with the keyword (if planted in this tweet)
+         * inserted between two of them.
+         */
+        private String nextText() {
+            boolean planted = keyword != null && random.nextDouble() < keywordRate;
+            int limit = MAX_TEXT_LENGTH - (planted ? keyword.length() + 1 : 0);
+            int size = 0;
+            int mentions = (int) mentionsPerTweet + (random.nextDouble() < mentionsPerTweet % 1 ? 1 : 0);
+            for (int i = 0; i < mentions; i++) {
+                tokens[size++] = "@" + withRandomCase(username(zipfRank()));
+            }
+            if (random.nextDouble() < emailRate) {
+                tokens[size++] = username(zipfRank()) + "@" + MAIL_DOMAINS[random.nextInt(MAIL_DOMAINS.length)];
+            }
+            int length = -1;
+            for (int i = 0; i < size; i++) {
+                length += 1 + tokens[i].length();
+            }
+            int target = 20 + random.nextInt(MAX_TEXT_LENGTH - 20);
+            while (length < target && size < tokens.length) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                if (length + 1 + word.length() > limit) {
+                    break;
+                }
+                tokens[size++] = word;
+                length += 1 + word.length();
+            }
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                String swap = tokens[i];
+                tokens[i] = tokens[j];
+                tokens[j] = swap;
+            }
+            text.setLength(0);
+            int words = 0;
+            for (int i = 0; i < size; i++) {
+                if (text.length() + (i > 0 ? 1 : 0) + tokens[i].length() > limit) {
+                    continue; // too many mentions to fit; drop this one
+                }
+                if (text.length() > 0) {
+                    text.append(' ');
+                }
+                text.append(tokens[i]);
+                words++;
+            }
+            if (planted) {
+                plant(random.nextInt(words + 1));
+            }
+            return text.toString();
+        }
+
+        /*
+         * Insert the keyword into text before its word-th word, or at the end
+         * if word is the number of words in text.
+         */
+        private void plant(int word) {
+            if (word == 0) {
+                text.insert(0, text.length() > 0 ? keyword + " " : keyword);
+                return;
+            }
+            int at = 0;
+            for (int seen = 0; seen < word; seen++) {
+                at = text.indexOf(" ", at + 1);
+            }
+            text.insert(at < 0 ? text.length() : at, " " + keyword);
+        }
+
+        private String withRandomCase(String username) {
+            if (random.nextInt(10) != 0) {
+                return username;
+            }
+            return Character.toUpperCase(username.charAt(0)) + username.substring(1);
+        }
+
+        /*
+         * @return a rank in 0 .. users-1, drawn by binary search of the
+         *         cumulative Zipf distribution
+         */
+        private int zipfRank() {
+            double u = random.nextDouble() * cumulative[users - 1];
+            int rank = Arrays.binarySearch(cumulative, u);
+            rank = rank >= 0 ? rank : -rank - 1;
+            return Math.min(rank, users - 1);
+        }
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.getSeconds() + duration.getNano() / 1e9;
+    }
+
+    private double[] zipfCumulative() {
+        double[] cumulative = new double[users];
+        double total = 0;
+        for (int rank = 0; rank < users; rank++) {
+            total += 1 / Math.pow(rank + 1, zipfExponent);
+            cumulative[rank] = total;
+        }
+        return cumulative;
+    }
+
+    /*
+     * Passes writes through but only flushes on close, so a JsonGenerator can
+     * be closed without closing the caller's writer.
+     */
+    private static class UnclosedWriter extends BufferedWriter {
+        UnclosedWriter(Writer out) {
+            super(out);
+        }
+
+        @Override public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * Schema-aware extraction of Tweets from JSON. Where TweetReader flattens the
+ * whole JSON tree of every tweet into maps and then looks up four keys, this
+ * class visits only the four paths a Tweet needs -- id, user.screen_name, text
+ * and created_at -- and skips everything else.
+ *
+ * The nested "user": {"screen_name": ...} layout of the Twitter API and the
+ * flat "user.screen_name" key are both accepted.
+ */
+public class TweetExtractor {
+
+    private TweetExtractor() {
+    }
+
+    /**
+     * Read a list of tweets from a stream, without building a JSON tree.
+     *
+     * @param reader
+     *            stream containing a JSON array of tweets; closed by this method.
+     * @return a list of tweets parsed out of the stream, in order.
+     * @throws JsonException if the input is not a well-formed array of tweets
+     */
+    public static List<Tweet> readTweets(Reader reader) {
+        List<Tweet> tweets = new ArrayList<>();
+        try (TweetStreamReader stream = new TweetStreamReader(reader)) {
+            while (stream.hasNext()) {
+                tweets.add(stream.next());
+            }
+        }
+        return tweets;
+    }
+
+    /**
+     * Read the fields of one tweet object from a parser.
+     *
+     * @param parser
+     *            parser whose last event was the START_OBJECT of a tweet.
+     *            On return its last event is the matching END_OBJECT.
+     * @return the tweet described by the object
+     * @throws JsonException if a required field is missing or malformed
+     */
+    public static Tweet readTweet(JsonParser parser) {
+        return readTweet(parser, null);
+    }
+
+    /**
+     * Read the fields of one tweet object from a parser, interning its author.
+     *
+     * @param parser
+     *            parser whose last event was the START_OBJECT of a tweet.
+     *            On return its last event is the matching END_OBJECT.
+     * @param usernames
+     *            if not null, the tweet's author is replaced by its canonical
+     *            lowercase instance from this table (adding it if necessary),
+     *            so tweets by the same user share one String
+     * @return the tweet described by the object
+     * @throws JsonException if a required field is missing or malformed
+     */
+    public static Tweet readTweet(JsonParser parser, UsernameTable usernames) {
+        String id = null;
+        String screenName = null;
+        String text = null;
+        String createdAt = null;
+        for (Event event = parser.next(); event != Event.END_OBJECT; event = parser.next()) {
+            switch (parser.getString()) {
+            case "id":
+                id = readScalar(parser);
+                break;
+            case "user.screen_name":
+                screenName = readScalar(parser);
+                break;
+            case "user":
+                String nested = readScreenName(parser);
+                if (nested != null) {
+                    screenName = nested;
+                }
+                break;
+            case "text":
+                text = readScalar(parser);
+                break;
+            case "created_at":
+                createdAt = readScalar(parser);
+                break;
+            default:
+                skipValue(parser, parser.next());
+            }
+        }
+        if (usernames != null && screenName != null) {
+            screenName = usernames.intern(screenName);
+        }
+        return makeTweet(id, screenName, text, createdAt);
+    }
+
+    /**
+     * Extract a tweet from an already-parsed JSON object by direct lookup of
+     * its four fields.
+     *
+     * @param object
+     *            JSON object for one tweet
+     * @return the tweet described by the object
+     * @throws JsonException if a required field is missing or malformed
+     */
+    public static Tweet fromJson(JsonObject object) {
+        String screenName = scalar(object.get("user.screen_name"));
+        JsonValue user = object.get("user");
+        if (user instanceof JsonObject && ((JsonObject) user).containsKey("screen_name")) {
+            screenName = scalar(((JsonObject) user).get("screen_name"));
+        }
+        return makeTweet(scalar(object.get("id")), screenName,
+                scalar(object.get("text")), scalar(object.get("created_at")));
+    }
+
+    /**
+     * Skip over a JSON value, including any nested objects or arrays.
+     *
+     * @param parser
+     *            parser positioned on the first event of the value
+     * @param first
+     *            that first event; if it starts an object or array, the parser
+     *            is advanced to the matching end event.
+     */
+    public static void skipValue(JsonParser parser, Event first) {
+        if (first != Event.START_OBJECT && first != Event.START_ARRAY) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            switch (parser.next()) {
+            case START_OBJECT:
+            case START_ARRAY:
+                depth++;
+                break;
+            case END_OBJECT:
+            case END_ARRAY:
+                depth--;
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    /*
+     * Read the screen_name out of a nested user object, skipping its other fields.
+     *
+     * @return the screen name, or null if the value is not an object with one.
+     */
+    private static String readScreenName(JsonParser parser) {
+        Event event = parser.next();
+        if (event != Event.START_OBJECT) {
+            skipValue(parser, event);
+            return null;
+        }
+        String screenName = null;
+        for (event = parser.next(); event != Event.END_OBJECT; event = parser.next()) {
+            if (parser.getString().equals("screen_name")) {
+                screenName = readScalar(parser);
+            } else {
+                skipValue(parser, parser.next());
+            }
+        }
+        return screenName;
+    }
+
+    /*
+     * Read a string or number value as text.
+     */
+    private static String readScalar(JsonParser parser) {
+        Event event = parser.next();
+        switch (event) {
+        case VALUE_STRING:
+        case VALUE_NUMBER:
+            return parser.getString();
+        default:
+            throw new JsonException("Expected a string or number but found " + event);
+        }
+    }
+
+    /*
+     * Get a string or number value as text.
+     *
+     * @return the text of value, or null if value is null.
+     */
+    private static String scalar(JsonValue value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value.getValueType()) {
+        case STRING:
+            return ((JsonString) value).getString();
+        case NUMBER:
+            return value.toString();
+        default:
+            throw new JsonException("Expected a string or number but found " + value.getValueType());
+        }
+    }
+
+    private static Tweet makeTweet(String id, String screenName, String text, String createdAt) {
+        if (id == null || screenName == null || text == null || createdAt == null) {
+            throw new JsonException("Tweet is missing one of id, user.screen_name, text or created_at");
+        }
+        return new Tweet(Long.parseLong(id), screenName, text, CreatedAtParser.parse(createdAt));
+    }
+}
@@ -0,0 +1,363 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import javax.json.stream.JsonParserFactory;
+
+/**
+ * Reads newline-delimited JSON tweet dumps (one tweet object per line) from
+ * local files, in parallel.
+ *
+ * The file is memory-mapped with FileChannel.map and cut into chunks at line
+ * boundaries; chunks are parsed on a fork-join pool with TweetExtractor and
+ * their results concatenated in file order.
+ *
+ * When authors are interned, each chunk interns into its own UsernameTable,
+ * so chunks share no state while parsing. The chunk tables are then merged
+ * into the caller's table in file order, and each chunk, in parallel, swaps
+ * its authors for the caller's canonical instances.
+ */
+public class TweetFileReader {
+
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+    private static final long MAX_CHUNK_BYTES = 1 << 30;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int BOUNDARY_WINDOW_BYTES = 1 << 16;
+
+    private static final JsonParserFactory PARSERS = Json.createParserFactory(null);
+
+    private TweetFileReader() {
+    }
+
+    /**
+     * Read all tweets from a newline-delimited JSON file, using the common
+     * fork-join pool.
+     *
+     * @param file
+     *            file with one JSON tweet object per line; blank lines are ignored
+     * @return the tweets in the file, in file order
+     * @throws IOException if the file cannot be read
+     * @throws JsonException if a line is not a well-formed tweet object
+     */
+    public static List<Tweet> readTweets(Path file) throws IOException {
+        return readTweets(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Read all tweets from a newline-delimited JSON file.
+     *
+     * @param file
+     *            file with one JSON tweet object per line; blank lines are ignored
+     * @param pool
+     *            pool to parse chunks on
+     * @return the tweets in the file, in file order
+     * @throws IOException if the file cannot be read
+     * @throws JsonException if a line is not a well-formed tweet object
+     */
+    public static List<Tweet> readTweets(Path file, ForkJoinPool pool) throws IOException {
+        return readTweets(file, pool, null, 0);
+    }
+
+    /**
+     * Read all tweets from a newline-delimited JSON file, interning their
+     * authors.
+     *
+     * @param file
+     *            file with one JSON tweet object per line; blank lines are ignored
+     * @param pool
+     *            pool to parse chunks on
+     * @param usernames
+     *            table giving the canonical lowercase instance of each author,
+     *            so tweets by the same user share one String
+     * @return the tweets in the file, in file order
+     * @throws IOException if the file cannot be read
+     * @throws JsonException if a line is not a well-formed tweet object
+     */
+    public static List<Tweet> readTweets(Path file, ForkJoinPool pool, UsernameTable usernames) throws IOException {
+        return readTweets(file, pool, usernames, 0);
+    }
+
+    /*
+     * Read all tweets, cutting the file into chunks of about chunkBytes, or a
+     * size derived from the pool's parallelism if chunkBytes is 0.
+     */
+    static List<Tweet> readTweets(Path file, ForkJoinPool pool, UsernameTable usernames, long chunkBytes)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return new ArrayList<>();
+            }
+            if (chunkBytes <= 0) {
+                chunkBytes = size / (pool.getParallelism() * CHUNKS_PER_THREAD);
+                chunkBytes = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, chunkBytes));
+            }
+            long[] bounds = chunkBounds(channel, size, chunkBytes);
+            @SuppressWarnings({ "unchecked", "rawtypes" })
+            List<Tweet>[] results = new List[bounds.length - 1];
+            UsernameTable[] tables = usernames == null ? null : new UsernameTable[results.length];
+            try {
+                pool.invoke(new ParseChunks(channel, tables, bounds, results, 0, results.length));
+            } catch (UncheckedIOException uioe) {
+                throw uioe.getCause();
+            }
+            if (usernames != null) {
+                // merge in file order, so the caller's ids follow first appearance
+                String[][] canonical = new String[results.length][];
+                for (int chunk = 0; chunk < results.length; chunk++) {
+                    canonical[chunk] = new String[tables[chunk].size()];
+                    for (int id = 0; id < canonical[chunk].length; id++) {
+                        canonical[chunk][id] = usernames.intern(tables[chunk].name(id));
+                    }
+                }
+                pool.invoke(new CanonicalizeAuthors(tables, canonical, results, 0, results.length));
+            }
+
+            int total = 0;
+            for (List<Tweet> chunk : results) {
+                total += chunk.size();
+            }
+            List<Tweet> tweets = new ArrayList<>(total);
+            for (List<Tweet> chunk : results) {
+                tweets.addAll(chunk);
+            }
+            return tweets;
+        }
+    }
+
+    /*
+     * Cut [0, size) into ranges of about chunkBytes that each start at the
+     * beginning of a line.
+     *
+     * @return strictly increasing offsets b such that chunk i is [b[i], b[i+1]),
+     *         with b[0] = 0 and b[last] = size
+     */
+    private static long[] chunkBounds(FileChannel channel, long size, long chunkBytes) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long start = 0;
+        while (start + chunkBytes < size) {
+            long next = nextLineStart(channel, size, start + chunkBytes);
+            if (next >= size) {
+                break;
+            }
+            bounds.add(next);
+            start = next;
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /*
+     * @return the smallest offset >= position that starts a line, or size if none
+     */
+    private static long nextLineStart(FileChannel channel, long size, long position) throws IOException {
+        long offset = position - 1;
+        while (offset < size) {
+            long length = Math.min(BOUNDARY_WINDOW_BYTES, size - offset);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            for (int i = 0; i < length; i++) {
+                if (window.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += length;
+        }
+        return size;
+    }
+
+    /*
+     * Parse every tweet in one mapped chunk, in order.
+     */
+    private static List<Tweet> parseChunk(ByteBuffer chunk, UsernameTable usernames) {
+        List<Tweet> tweets = new ArrayList<>();
+        LineReader line = new LineReader();
+        int lineStart = 0;
+        int end = chunk.limit();
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && chunk.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (!isBlank(chunk, lineStart, lineEnd)) {
+                line.decode(chunk, lineStart, lineEnd);
+                try (JsonParser parser = PARSERS.createParser(line)) {
+                    Event event = parser.next();
+                    if (event != Event.START_OBJECT) {
+                        throw new JsonException("Expected a tweet object but found " + event);
+                    }
+                    tweets.add(TweetExtractor.readTweet(parser, usernames));
+                    if (parser.hasNext()) {
+                        throw new JsonException("Expected one tweet object per line but found more after it");
+                    }
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return tweets;
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Maps and parses chunks [lo, hi) of a file, splitting the range in half
+     * until a single chunk remains. If tables is non-null, each chunk interns
+     * its authors into a new table of its own, stored in tables.
+     */
+    private static class ParseChunks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final UsernameTable[] tables;
+        private final long[] bounds;
+        private final List<Tweet>[] results;
+        private final int lo;
+        private final int hi;
+
+        ParseChunks(FileChannel channel, UsernameTable[] tables, long[] bounds, List<Tweet>[] results,
+                int lo, int hi) {
+            this.channel = channel;
+            this.tables = tables;
+            this.bounds = bounds;
+            this.results = results;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ParseChunks(channel, tables, bounds, results, lo, mid),
+                          new ParseChunks(channel, tables, bounds, results, mid, hi));
+                return;
+            }
+            try {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY,
+                        bounds[lo], bounds[lo + 1] - bounds[lo]);
+                UsernameTable usernames = null;
+                if (tables != null) {
+                    usernames = tables[lo] = new UsernameTable();
+                }
+                results[lo] = parseChunk(chunk, usernames);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }
+    }
+
+    /*
+     * Replaces the author of each tweet in chunks [lo, hi), interned in the
+     * chunk's own table, with canonical[chunk][its id in that table].
+     */
+    private static class CanonicalizeAuthors extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final UsernameTable[] tables;
+        private final String[][] canonical;
+        private final List<Tweet>[] results;
+        private final int lo;
+        private final int hi;
+
+        CanonicalizeAuthors(UsernameTable[] tables, String[][] canonical, List<Tweet>[] results, int lo, int hi) {
+            this.tables = tables;
+            this.canonical = canonical;
+            this.results = results;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new CanonicalizeAuthors(tables, canonical, results, lo, mid),
+                          new CanonicalizeAuthors(tables, canonical, results, mid, hi));
+                return;
+            }
+            List<Tweet> tweets = results[lo];
+            for (int i = 0; i < tweets.size(); i++) {
+                Tweet tweet = tweets.get(i);
+                String author = canonical[lo][tables[lo].find(tweet.getAuthor())];
+                if (author != tweet.getAuthor()) {
+                    tweets.set(i, new Tweet(tweet.getId(), author, tweet.getText(), tweet.getTimestamp()));
+                }
+            }
+            tables[lo] = null; // let the chunk's table be collected
+        }
+    }
+
+    /*
+     * Reader over one line of a chunk, decoded from UTF-8 into a char buffer
+     * that is reused for every line. Closing it is a no-op so that the same
+     * instance can be handed to a parser per line.
+     */
+    private static class LineReader extends Reader {
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private CharBuffer chars = CharBuffer.allocate(1024);
+
+        void decode(ByteBuffer chunk, int start, int end) {
+            ByteBuffer bytes = chunk.duplicate();
+            bytes.limit(end);
+            bytes.position(start);
+            if (chars.capacity() < end - start) {
+                chars = CharBuffer.allocate(end - start);
+            }
+            chars.clear();
+            decoder.reset();
+            decoder.decode(bytes, chars, true);
+            decoder.flush(chars);
+            chars.flip();
+        }
+
+        @Override public int read(char[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!chars.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, chars.remaining());
+            chars.get(buffer, offset, count);
+            return count;
+        }
+
+        @Override public void close() {
+        }
+    }
+}
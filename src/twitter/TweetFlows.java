@@ -0,0 +1,256 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Predicate;
+
+/**
+ * Operators over unbounded streams of tweets, as java.util.concurrent.Flow
+ * processors: the streaming counterparts of Filter, Extract and
+ * SocialNetwork, which need the whole list of tweets in memory.
+ *
+ * Each operator is a Stage, a SubmissionPublisher that subscribes to its
+ * upstream publisher and publishes its results to any number of downstream
+ * subscribers, each through a buffer of Flow.defaultBufferSize() items. A
+ * stage requests one item at a time from upstream and only requests the next
+ * once it has published its results for the last, and publishing blocks while
+ * a downstream buffer is full. So a slow stage stops requesting, its
+ * upstream buffer fills, and the upstream stage blocks in turn, all the way
+ * back to publish(), which throttles whatever reads the tweets: memory stays
+ * bounded by the buffers, whatever the length of the stream.
+ *
+ * For example, to follow an unbounded feed:
+ *
+ *   SubmissionPublisher<Tweet> source = new SubmissionPublisher<>();
+ *   TweetFlows.Stage<Tweet, Tweet> recent = TweetFlows.inTimespan(timespan);
+ *   TweetFlows.Stage<Tweet, FollowsGraph> graphs = TweetFlows.followsGraph(10_000);
+ *   source.subscribe(recent);
+ *   recent.subscribe(graphs);
+ *   graphs.consume(graph -> System.out.println(graph.influencers(10)));
+ *   TweetFlows.publish(new TweetStreamReader(reader), source);
+ *
+ * Errors, from upstream or from a stage, complete every stage downstream
+ * exceptionally, and cancel the subscription of the stage that failed.
+ */
+public class TweetFlows {
+
+    private TweetFlows() {
+    }
+
+    /**
+     * Submit every item of an iterator to a publisher, then close it. Blocks
+     * while any subscriber's buffer is full, so a slow pipeline throttles the
+     * iterator.
+     *
+     * @param items
+     *            items to publish, consumed by this method, e.g. a
+     *            TweetStreamReader over a feed
+     * @param publisher
+     *            publisher to submit them to; closed when items run out, or
+     *            closed exceptionally if the iterator throws
+     * @param <T>
+     *            type of item
+     */
+    public static <T> void publish(Iterator<? extends T> items, SubmissionPublisher<T> publisher) {
+        try {
+            while (items.hasNext() && !publisher.isClosed()) {
+                publisher.submit(items.next());
+            }
+            publisher.close();
+        } catch (RuntimeException e) {
+            publisher.closeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * @param username
+     *            Twitter username, in any case
+     * @return a stage that passes on the tweets written by username, as
+     *         Filter.writtenBy does, in order
+     */
+    public static Stage<Tweet, Tweet> writtenBy(String username) {
+        return new FilterStage(tweet -> tweet.getAuthor().equalsIgnoreCase(username));
+    }
+
+    /**
+     * @param timespan
+     *            timespan
+     * @return a stage that passes on the tweets sent during timespan, as
+     *         Filter.inTimespan does, in order
+     */
+    public static Stage<Tweet, Tweet> inTimespan(Timespan timespan) {
+        return new FilterStage(tweet -> !tweet.getTimestamp().isBefore(timespan.getStart())
+                && !tweet.getTimestamp().isAfter(timespan.getEnd()));
+    }
+
+    /**
+     * @param words
+     *            words to search for, as for Filter.containing
+     * @return a stage that passes on the tweets containing at least one of
+     *         words, as Filter.containing does, in order
+     */
+    public static Stage<Tweet, Tweet> containing(List<String> words) {
+        KeywordMatcher matcher = new KeywordMatcher(words);
+        return new FilterStage(tweet -> matcher.matches(tweet.getText()));
+    }
+
+    /**
+     * @return a stage that publishes each username mentioned in the tweets, in
+     *         lowercase, the first time it is mentioned, so that the items
+     *         published so far are always Extract.getMentionedUsers of the
+     *         tweets received so far
+     */
+    public static Stage<Tweet, String> mentions() {
+        return new MentionStage();
+    }
+
+    /**
+     * @param snapshotEvery
+     *            number of tweets between snapshots, >= 1
+     * @return a stage that keeps the follows graph of the tweets received so
+     *         far up to date with IncrementalFollowsGraph, and publishes an
+     *         immutable snapshot of it after every snapshotEvery tweets and
+     *         after the last tweet (or once, empty, if there are none), each
+     *         equal to FollowsGraph.fromTweets of the tweets received so far
+     */
+    public static Stage<Tweet, FollowsGraph> followsGraph(int snapshotEvery) {
+        if (snapshotEvery < 1) {
+            throw new IllegalArgumentException("requires snapshotEvery >= 1");
+        }
+        return new FollowsGraphStage(snapshotEvery);
+    }
+
+    /**
+     * A step of a pipeline: subscribes to one upstream publisher, processes
+     * its items one at a time, and publishes results to its own subscribers
+     * through bounded buffers. Call consume() on the last stage to run a
+     * pipeline to completion.
+     *
+     * @param <T>
+     *            type of item received
+     * @param <R>
+     *            type of item published
+     */
+    public abstract static class Stage<T, R> extends SubmissionPublisher<R> implements Flow.Processor<T, R> {
+
+        private Flow.Subscription subscription;
+
+        /* Rep invariant:
+         *    subscription is null until onSubscribe, then fixed
+         *    at most one item has been requested and not yet received
+         * Thread safety argument:
+         *    Flow guarantees that onSubscribe, onNext, onError and onComplete
+         *    are called one at a time, each happening-before the next, so the
+         *    state of a stage is confined to whichever thread is calling them
+         */
+
+        Stage() {
+        }
+
+        @Override public void onSubscribe(Flow.Subscription subscription) {
+            if (this.subscription != null) {
+                subscription.cancel(); // a stage has only one upstream
+                return;
+            }
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override public void onNext(T item) {
+            try {
+                process(item);
+            } catch (RuntimeException e) {
+                subscription.cancel();
+                closeExceptionally(e);
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override public void onError(Throwable throwable) {
+            closeExceptionally(throwable);
+        }
+
+        @Override public void onComplete() {
+            try {
+                finish();
+            } catch (RuntimeException e) {
+                closeExceptionally(e);
+                return;
+            }
+            close();
+        }
+
+        /*
+         * Handle one item, submit()ting any results.
+         */
+        abstract void process(T item);
+
+        /*
+         * Submit any results still pending once upstream is done.
+         */
+        void finish() {
+        }
+    }
+
+    private static class FilterStage extends Stage<Tweet, Tweet> {
+        private final Predicate<Tweet> condition;
+
+        FilterStage(Predicate<Tweet> condition) {
+            this.condition = condition;
+        }
+
+        @Override void process(Tweet tweet) {
+            if (condition.test(tweet)) {
+                submit(tweet);
+            }
+        }
+    }
+
+    private static class MentionStage extends Stage<Tweet, String> {
+        private final UsernameTable mentioned = new UsernameTable();
+        private final MentionScanner.MentionVisitor addMention = (text, start, end) -> {
+            int before = mentioned.size();
+            int id = mentioned.id(text, start, end);
+            if (id == before) {
+                submit(mentioned.name(id));
+            }
+        };
+
+        @Override void process(Tweet tweet) {
+            MentionScanner.scan(tweet.getText(), addMention);
+        }
+    }
+
+    private static class FollowsGraphStage extends Stage<Tweet, FollowsGraph> {
+        private final int snapshotEvery;
+        private final IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+
+        FollowsGraphStage(int snapshotEvery) {
+            this.snapshotEvery = snapshotEvery;
+        }
+
+        @Override void process(Tweet tweet) {
+            graph.addTweet(tweet);
+            if (graph.tweetCount() % snapshotEvery == 0) {
+                publishSnapshot();
+            }
+        }
+
+        @Override void finish() {
+            if (graph.tweetCount() % snapshotEvery != 0 || graph.tweetCount() == 0) {
+                publishSnapshot();
+            }
+        }
+
+        private void publishSnapshot() {
+            submit(graph.snapshot());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking client that polls a tweet server, such as Main.SAMPLE_SERVER
+ * or a LocalTweetServer, on a schedule.
+ *
+ * Requests are sent with HttpClient.sendAsync, so no thread waits on the
+ * network. Polling is double-buffered: as soon as batch N has been
+ * downloaded, it is parsed on a dedicated parser thread while the request for
+ * batch N+1 goes out. Batch N+1 is not requested until batch N-1 has been
+ * parsed, so at most one batch is downloading and one is parsing, and a slow
+ * handler throttles polling instead of letting batches pile up. Requests
+ * start no more often than once per interval.
+ *
+ * Each batch is parsed and then delivered on the parser thread, chained after
+ * the delivery of the batch before it, so batches are delivered in the order
+ * they were requested, one at a time. A failed request or unparseable
+ * response is reported and polling carries on.
+ */
+public class TweetPoller implements AutoCloseable {
+
+    /**
+     * Longest a request may take; the sample server can take up to a minute
+     * to respond.
+     */
+    public static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final HttpRequest request;
+    private final long intervalNanos;
+    private final Consumer<List<Tweet>> onBatch;
+    private final Consumer<Throwable> onError;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            daemon("TweetPoller-scheduler"));
+    private final ExecutorService parser = Executors.newSingleThreadExecutor(daemon("TweetPoller-parser"));
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private volatile boolean started = false;
+    private volatile boolean closed = false;
+
+    // completes (normally) once the latest batch polled has been parsed and handled
+    private CompletableFuture<Void> previousBatch = CompletableFuture.completedFuture(null);
+
+    /* Abstraction function:
+     *    represents a poller of request's URI every intervalNanos that has
+     *    delivered batchCount batches to onBatch and failureCount failures to
+     *    onError, and is polling iff started && !closed
+     * Rep invariant:
+     *    intervalNanos >= 0
+     *    closed implies nothing more is scheduled
+     * Safety from rep exposure:
+     *    all fields are private, and none is ever returned
+     * Thread safety argument:
+     *    poll() only runs on the single scheduler thread, which confines
+     *    previousBatch; parsing and handlers only run on the single parser
+     *    thread; counts are atomic and flags are volatile
+     */
+
+    /**
+     * Make a poller; it does not poll until start() is called.
+     *
+     * @param server
+     *            URI of a server that responds to GET with a JSON array of
+     *            tweets in the sample server's format
+     * @param interval
+     *            minimum time between the starts of successive requests, >= 0
+     * @param onBatch
+     *            called with each batch of tweets, in order, on the parser
+     *            thread; polling waits while it runs
+     * @param onError
+     *            called with the cause of each failed request or response, on
+     *            a poller thread
+     */
+    public TweetPoller(URI server, Duration interval, Consumer<List<Tweet>> onBatch, Consumer<Throwable> onError) {
+        if (interval.isNegative()) {
+            throw new IllegalArgumentException("requires nonnegative interval");
+        }
+        this.request = HttpRequest.newBuilder(server).timeout(REQUEST_TIMEOUT).GET().build();
+        this.intervalNanos = interval.toNanos();
+        this.onBatch = onBatch;
+        this.onError = onError;
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert intervalNanos >= 0;
+    }
+
+    /**
+     * Start polling.
+     *
+     * @throws IllegalStateException
+     *             if already started or closed
+     */
+    public synchronized void start() {
+        if (started || closed) {
+            throw new IllegalStateException("poller already started or closed");
+        }
+        started = true;
+        scheduler.execute(this::poll);
+    }
+
+    /**
+     * Fetch and parse one batch, independently of the schedule.
+     *
+     * @return a future that completes with the tweets the server returned, or
+     *         exceptionally with an IOException or JsonException if it could
+     *         not be fetched or parsed
+     */
+    public CompletableFuture<List<Tweet>> fetch() {
+        return download().thenApplyAsync(TweetPoller::parse, parser);
+    }
+
+    /**
+     * @return number of batches delivered to the handler so far
+     */
+    public long batchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * @return number of failed requests or responses so far
+     */
+    public long failureCount() {
+        return failureCount.get();
+    }
+
+    /**
+     * Stop polling. A batch already being parsed may still be delivered.
+     */
+    @Override public synchronized void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        parser.shutdown();
+    }
+
+    /*
+     * @see Object.toString()
+     */
+    @Override public String toString() {
+        return "TweetPoller[" + request.uri() + ", " + batchCount() + " batches, " + failureCount() + " failures]";
+    }
+
+    /*
+     * Request one batch; once it has downloaded and the batch before it has
+     * been handled, schedule the next request.
+     */
+    private void poll() {
+        if (closed) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        CompletableFuture<byte[]> body = download();
+        // parse and deliver on the parser thread, strictly after the batch before
+        CompletableFuture<Void> handled = previousBatch
+                .thenCombineAsync(body, (ignored, bytes) -> parse(bytes), parser)
+                .thenAcceptAsync(batch -> {
+                    batchCount.incrementAndGet();
+                    onBatch.accept(batch);
+                }, parser);
+        CompletableFuture.allOf(body, previousBatch).whenComplete((ignored, error) -> scheduleNext(startNanos));
+        previousBatch = handled.handle((ignored, error) -> {
+            if (error != null && !closed) {
+                failureCount.incrementAndGet();
+                onError.accept(error instanceof CompletionException ? error.getCause() : error);
+            }
+            return null;
+        });
+    }
+
+    private void scheduleNext(long previousStartNanos) {
+        long delay = Math.max(0, intervalNanos - (System.nanoTime() - previousStartNanos));
+        try {
+            scheduler.schedule(this::poll, delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ree) {
+            assert closed;
+        }
+    }
+
+    private CompletableFuture<byte[]> download() {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            if (response.statusCode() != 200) {
+                throw new CompletionException(new IOException(
+                        "HTTP " + response.statusCode() + " from " + request.uri()));
+            }
+            return response.body();
+        });
+    }
+
+    private static List<Tweet> parse(byte[] body) {
+        return TweetExtractor.readTweets(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
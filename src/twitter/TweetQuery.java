@@ -0,0 +1,424 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable conjunction of Filter conditions, run as one plan instead of a
+ * chain of Filter calls that each build a full intermediate list.
+ *
+ * A query is built by starting from all() and adding conditions, e.g.
+ * TweetQuery.all().writtenBy("alyssa").containing(Arrays.asList("rivest")).
+ * Running it against a list makes a single pass that tests the conditions
+ * most likely to reject a tweet first, as estimated from a sample of the
+ * list. Running it against an IndexedCorpus asks each index how many tweets
+ * its condition admits, enumerates the candidates of the most selective one,
+ * and tests only those against the rest.
+ */
+public class TweetQuery {
+
+    /*
+     * Lists no longer than SAMPLE_SIZE * SAMPLE_MIN_RATIO are not worth
+     * sampling; their conditions run in order of cost alone.
+     */
+    private static final int SAMPLE_SIZE = 64;
+    private static final int SAMPLE_MIN_RATIO = 8;
+
+    private static final TweetQuery ALL = new TweetQuery(Collections.<Condition>emptyList(), false);
+
+    private final List<Condition> conditions;
+    private final boolean unsatisfiable;
+    private final Condition routing;
+
+    /* Abstraction function:
+     *    represents the set of tweets satisfying every condition in
+     *    conditions, or no tweets at all if unsatisfiable
+     * Rep invariant:
+     *    conditions has at most one AuthorCondition and one TimeCondition
+     *    if unsatisfiable, conditions is empty
+     *    routing is the author condition if any, else the first word
+     *      condition if any, else null
+     * Safety from rep exposure:
+     *    conditions is an unmodifiable list of immutable conditions, and is
+     *      never returned
+     */
+
+    private TweetQuery(List<Condition> conditions, boolean unsatisfiable) {
+        this.conditions = conditions;
+        this.unsatisfiable = unsatisfiable;
+        AuthorCondition author = find(AuthorCondition.class);
+        this.routing = author != null ? author : find(WordCondition.class);
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert !unsatisfiable || conditions.isEmpty();
+    }
+
+    /**
+     * @return a query matching every tweet
+     */
+    public static TweetQuery all() {
+        return ALL;
+    }
+
+    /**
+     * @param username
+     *            Twitter username, required to be a valid Twitter username as
+     *            defined by Tweet.getAuthor()'s spec.
+     * @return a query matching the tweets that this query matches and that
+     *         Filter.writtenBy(tweets, username) would keep
+     */
+    public TweetQuery writtenBy(String username) {
+        AuthorCondition existing = find(AuthorCondition.class);
+        if (existing != null) {
+            return existing.username.equalsIgnoreCase(username) ? this : none();
+        }
+        return with(new AuthorCondition(username));
+    }
+
+    /**
+     * @param timespan
+     *            timespan
+     * @return a query matching the tweets that this query matches and that
+     *         Filter.inTimespan(tweets, timespan) would keep
+     */
+    public TweetQuery inTimespan(Timespan timespan) {
+        TimeCondition existing = find(TimeCondition.class);
+        if (existing == null) {
+            return with(new TimeCondition(timespan));
+        }
+        Instant start = later(existing.timespan.getStart(), timespan.getStart());
+        Instant end = earlier(existing.timespan.getEnd(), timespan.getEnd());
+        if (start.isAfter(end)) {
+            return none();
+        }
+        List<Condition> replaced = new ArrayList<>(conditions);
+        replaced.set(replaced.indexOf(existing), new TimeCondition(new Timespan(start, end)));
+        return new TweetQuery(Collections.unmodifiableList(replaced), false);
+    }
+
+    /**
+     * @param words
+     *            a list of words, as for Filter.containing()
+     * @return a query matching the tweets that this query matches and that
+     *         Filter.containing(tweets, words) would keep
+     */
+    public TweetQuery containing(List<String> words) {
+        if (unsatisfiable) {
+            return this;
+        }
+        return with(new WordCondition(words));
+    }
+
+    /**
+     * @param tweet
+     *            a tweet
+     * @return true iff this query matches tweet
+     */
+    public boolean matches(Tweet tweet) {
+        if (unsatisfiable) {
+            return false;
+        }
+        for (Condition condition : conditions) {
+            if (!condition.test(tweet)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Run this query over a list in a single pass.
+     *
+     * @param tweets
+     *            a list of tweets, not modified by this method.
+     * @return all and only the tweets in the list that this query matches, in
+     *         the same order as in the input list.
+     */
+    public List<Tweet> filter(List<Tweet> tweets) {
+        if (unsatisfiable) {
+            return new ArrayList<>();
+        }
+        Condition[] plan = planFor(tweets);
+        List<Tweet> result = new ArrayList<>();
+        for (Tweet tweet : tweets) {
+            if (testAll(plan, 0, tweet)) {
+                result.add(tweet);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Run this query over an indexed corpus, enumerating only the candidates
+     * of its most selective condition.
+     *
+     * @param corpus
+     *            indexed corpus
+     * @return all and only the tweets in the corpus that this query matches,
+     *         in the same order as in the corpus.
+     */
+    public List<Tweet> filter(IndexedCorpus corpus) {
+        if (unsatisfiable) {
+            return new ArrayList<>();
+        }
+        if (conditions.isEmpty()) {
+            List<Tweet> result = new ArrayList<>(corpus.size());
+            for (int i = 0; i < corpus.size(); i++) {
+                result.add(corpus.get(i));
+            }
+            return result;
+        }
+        Condition[] plan = conditions.toArray(new Condition[0]);
+        double[] counts = new double[plan.length];
+        for (int i = 0; i < plan.length; i++) {
+            counts[i] = plan[i].count(corpus);
+        }
+        sortByKey(plan, counts);
+
+        // plan[0] admits the fewest tweets: its index yields exactly its
+        // matches, in corpus order, and the rest are tested one by one
+        int[] candidates = plan[0].positions(corpus);
+        List<Tweet> result = new ArrayList<>();
+        for (int position : candidates) {
+            Tweet tweet = corpus.get(position);
+            if (testAll(plan, 1, tweet)) {
+                result.add(tweet);
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Hooks for QueryBatch, which routes each tweet to the queries it may
+     * match by one condition per query: the author condition if there is one,
+     * otherwise the first keyword condition, otherwise none (every tweet).
+     */
+
+    /* @return true iff this query matches no tweet at all */
+    boolean isUnsatisfiable() {
+        return unsatisfiable;
+    }
+
+    /* @return the username of this query's author condition, or null if none */
+    String routingAuthor() {
+        return routing instanceof AuthorCondition ? ((AuthorCondition) routing).username : null;
+    }
+
+    /* @return the words of the routing keyword condition, or null if tweets are not routed by keyword */
+    List<String> routingWords() {
+        return routing instanceof WordCondition ? ((WordCondition) routing).words : null;
+    }
+
+    /* @return true iff tweet satisfies every condition except the routing one */
+    boolean matchesAfterRouting(Tweet tweet) {
+        if (unsatisfiable) {
+            return false;
+        }
+        for (Condition condition : conditions) {
+            if (condition != routing && !condition.test(tweet)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * @see Object.toString()
+     */
+    @Override public String toString() {
+        return unsatisfiable ? "TweetQuery[none]" : "TweetQuery" + conditions;
+    }
+
+    /*
+     * Order this query's conditions for a single pass over tweets: a
+     * condition that costs c per tweet and passes a fraction p of them should
+     * run before one with a larger c / (1 - p).
+     */
+    private Condition[] planFor(List<Tweet> tweets) {
+        Condition[] plan = conditions.toArray(new Condition[0]);
+        double[] ranks = new double[plan.length];
+        int n = tweets.size();
+        boolean sample = n > SAMPLE_SIZE * SAMPLE_MIN_RATIO && tweets instanceof RandomAccess;
+        for (int i = 0; i < plan.length; i++) {
+            double rejected = 1.0;
+            if (sample) {
+                int passed = 0;
+                for (int s = 0; s < SAMPLE_SIZE; s++) {
+                    if (plan[i].test(tweets.get((int) ((long) s * n / SAMPLE_SIZE)))) {
+                        passed++;
+                    }
+                }
+                rejected = (SAMPLE_SIZE - passed + 1.0) / (SAMPLE_SIZE + 1.0);
+            }
+            ranks[i] = plan[i].cost() / rejected;
+        }
+        sortByKey(plan, ranks);
+        return plan;
+    }
+
+    private static boolean testAll(Condition[] plan, int from, Tweet tweet) {
+        for (int i = from; i < plan.length; i++) {
+            if (!plan[i].test(tweet)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void sortByKey(Condition[] plan, double[] keys) {
+        Integer[] order = new Integer[plan.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> keys[i]));
+        Condition[] sorted = new Condition[plan.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = plan[order[i]];
+        }
+        System.arraycopy(sorted, 0, plan, 0, plan.length);
+    }
+
+    private TweetQuery with(Condition condition) {
+        if (unsatisfiable) {
+            return this;
+        }
+        List<Condition> extended = new ArrayList<>(conditions);
+        extended.add(condition);
+        return new TweetQuery(Collections.unmodifiableList(extended), false);
+    }
+
+    private static TweetQuery none() {
+        return new TweetQuery(Collections.<Condition>emptyList(), true);
+    }
+
+    private <C extends Condition> C find(Class<C> kind) {
+        for (Condition condition : conditions) {
+            if (kind.isInstance(condition)) {
+                return kind.cast(condition);
+            }
+        }
+        return null;
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static Instant earlier(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /*
+     * One Filter condition, with the operations the planner needs.
+     */
+    private interface Condition {
+        /* @return true iff tweet satisfies this condition */
+        boolean test(Tweet tweet);
+
+        /* @return relative cost of test() on one tweet */
+        double cost();
+
+        /* @return an upper bound on the number of tweets in corpus satisfying this */
+        long count(IndexedCorpus corpus);
+
+        /* @return positions in corpus of exactly the tweets satisfying this, increasing */
+        int[] positions(IndexedCorpus corpus);
+    }
+
+    private static class AuthorCondition implements Condition {
+        private final String username;
+
+        AuthorCondition(String username) {
+            this.username = username;
+        }
+
+        @Override public boolean test(Tweet tweet) {
+            return tweet.getAuthor().equalsIgnoreCase(username);
+        }
+
+        @Override public double cost() {
+            return 2;
+        }
+
+        @Override public long count(IndexedCorpus corpus) {
+            return corpus.authors().count(username);
+        }
+
+        @Override public int[] positions(IndexedCorpus corpus) {
+            return corpus.authors().positions(username);
+        }
+
+        @Override public String toString() {
+            return "writtenBy(" + username + ")";
+        }
+    }
+
+    private static class TimeCondition implements Condition {
+        private final Timespan timespan;
+
+        TimeCondition(Timespan timespan) {
+            this.timespan = timespan;
+        }
+
+        @Override public boolean test(Tweet tweet) {
+            Instant timestamp = tweet.getTimestamp();
+            return !timestamp.isBefore(timespan.getStart()) && !timestamp.isAfter(timespan.getEnd());
+        }
+
+        @Override public double cost() {
+            return 1;
+        }
+
+        @Override public long count(IndexedCorpus corpus) {
+            return corpus.times().count(timespan);
+        }
+
+        @Override public int[] positions(IndexedCorpus corpus) {
+            return corpus.times().positions(timespan);
+        }
+
+        @Override public String toString() {
+            return "inTimespan" + timespan;
+        }
+    }
+
+    private static class WordCondition implements Condition {
+        private final List<String> words;
+        private final KeywordMatcher matcher;
+
+        WordCondition(List<String> words) {
+            this.words = Collections.unmodifiableList(new ArrayList<>(words));
+            this.matcher = new KeywordMatcher(this.words);
+        }
+
+        @Override public boolean test(Tweet tweet) {
+            return matcher.matches(tweet.getText());
+        }
+
+        @Override public double cost() {
+            return 20;
+        }
+
+        @Override public long count(IndexedCorpus corpus) {
+            return corpus.words().postingCount(words);
+        }
+
+        @Override public int[] positions(IndexedCorpus corpus) {
+            return corpus.words().positions(words);
+        }
+
+        @Override public String toString() {
+            return "containing" + words;
+        }
+    }
+}
@@ -0,0 +1,419 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of tweets backed by a memory-mapped binary snapshot file, so
+ * a parsed corpus can be reloaded without parsing JSON again.
+ *
+ * The file is columnar: fixed-width id, epoch-second and nano-of-second
+ * columns, a dictionary-encoded author column, and an offset-indexed UTF-8
+ * text blob. Opening a snapshot maps the file and checks its columns in one
+ * sequential pass, so that a corrupt file is refused up front; each Tweet is
+ * decoded when it is requested.
+ */
+public class TweetSnapshot extends AbstractList<Tweet> implements RandomAccess {
+
+    /**
+     * Most tweets a snapshot can hold: each column is mapped as one region
+     * of at most Integer.MAX_VALUE bytes, and the text offsets take 8 bytes
+     * per tweet, plus one.
+     */
+    public static final int MAX_TWEETS = Integer.MAX_VALUE / 8 - 1;
+
+    /*
+     * File layout, all integers big-endian:
+     *
+     *   header    MAGIC, VERSION (int), tweet count n (long),
+     *             author count a (int), then 8 section offsets (long) in the
+     *             order of the sections below
+     *   ids       n longs
+     *   seconds   n longs, epoch second of each timestamp
+     *   nanos     n ints, nano-of-second of each timestamp
+     *   authors   n ints, index into the dictionary
+     *   texts     n+1 longs, offsets into the text blob; text i is [t[i], t[i+1])
+     *   blob      UTF-8 bytes of every text, concatenated
+     *   dict      a+1 ints, offsets into the dictionary blob
+     *   dictBlob  UTF-8 bytes of every distinct author, concatenated
+     */
+    private static final int MAGIC = 0x54575453; // "TWTS"
+    private static final int VERSION = 1;
+    private static final int SECTIONS = 8;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + SECTIONS * 8;
+
+    /*
+     * Largest region mapped at once; the text blob may be longer than this.
+     */
+    private static final long SEGMENT_BYTES = 1L << 30;
+
+    private final int size;
+    private final ByteBuffer ids;
+    private final ByteBuffer seconds;
+    private final ByteBuffer nanos;
+    private final ByteBuffer authors;
+    private final ByteBuffer textOffsets;
+    private final ByteBuffer[] blob;
+    private final ByteBuffer dictOffsets;
+    private final ByteBuffer dictBlob;
+    private final String[] authorNames;
+
+    /* Abstraction function:
+     *    represents the list of size tweets whose i-th tweet has id ids[i],
+     *    timestamp seconds[i] + nanos[i], author dictionary[authors[i]], and
+     *    text blob[textOffsets[i] .. textOffsets[i+1])
+     * Rep invariant:
+     *    every section holds the number of entries given in the layout above,
+     *    checked against the header counts and file length when opened
+     *    text and dictionary offsets are nondecreasing from 0 to their blob's
+     *    length, author ids index the dictionary, and nanos are in
+     *    0..999,999,999, all checked when opened
+     *    every mapped section is at most Integer.MAX_VALUE bytes, so int
+     *    offsets such as index * 8 into it cannot overflow
+     *    authorNames[k] is null or the decoded k-th dictionary entry
+     * Safety from rep exposure:
+     *    buffers are read with absolute gets only and never returned;
+     *    authorNames is only filled with immutable Strings
+     */
+
+    private TweetSnapshot(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            throw new IOException("not a tweet snapshot");
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("not a tweet snapshot");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("unsupported tweet snapshot version " + header.getInt(4));
+        }
+        long count = header.getLong(8);
+        int authorCount = header.getInt(16);
+        if (count < 0 || count > Integer.MAX_VALUE) {
+            throw new IOException("corrupt tweet snapshot: tweet count " + count);
+        }
+        if (authorCount < 0) {
+            throw new IOException("corrupt tweet snapshot: author count " + authorCount);
+        }
+        long[] sections = new long[SECTIONS + 1];
+        for (int i = 0; i < SECTIONS; i++) {
+            sections[i] = header.getLong(20 + 8 * i);
+        }
+        sections[SECTIONS] = channel.size();
+        // every fixed-width section must hold exactly its entries, and the
+        // variable-length blobs must fit between their neighbours
+        long[] lengths = { 8L * count, 8L * count, 4L * count, 4L * count, 8L * (count + 1), -1,
+                4L * (authorCount + 1L), -1 };
+        if (sections[0] != HEADER_BYTES) {
+            throw new IOException("corrupt tweet snapshot: first section at " + sections[0]);
+        }
+        for (int i = 0; i < SECTIONS; i++) {
+            long length = sections[i + 1] - sections[i];
+            if (sections[i + 1] < sections[i] || (lengths[i] >= 0 && length != lengths[i])) {
+                throw new IOException("corrupt tweet snapshot: section " + i + " at " + sections[i] + " has length "
+                        + length);
+            }
+        }
+
+        this.size = (int) count;
+        this.ids = map(channel, sections, 0);
+        this.seconds = map(channel, sections, 1);
+        this.nanos = map(channel, sections, 2);
+        this.authors = map(channel, sections, 3);
+        this.textOffsets = map(channel, sections, 4);
+        this.dictOffsets = map(channel, sections, 6);
+        this.dictBlob = map(channel, sections, 7);
+        this.authorNames = new String[authorCount];
+        long blobLength = sections[6] - sections[5];
+        checkOffsets(textOffsets, blobLength);
+        checkEntries(authorCount, sections[8] - sections[7]);
+
+        this.blob = new ByteBuffer[(int) ((blobLength + SEGMENT_BYTES - 1) / SEGMENT_BYTES)];
+        for (int i = 0; i < blob.length; i++) {
+            long start = sections[5] + i * SEGMENT_BYTES;
+            blob[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_BYTES, sections[6] - start));
+        }
+    }
+
+    /*
+     * Check that the text offsets start at 0, never decrease, give each text
+     * at most Integer.MAX_VALUE bytes, and end at blobLength.
+     */
+    private void checkOffsets(ByteBuffer offsets, long blobLength) throws IOException {
+        long previous = offsets.getLong(0);
+        if (previous != 0) {
+            throw new IOException("corrupt tweet snapshot: first text offset " + previous);
+        }
+        for (int i = 1; i <= size; i++) {
+            long offset = offsets.getLong(8 * i);
+            if (offset < previous || offset - previous > Integer.MAX_VALUE || offset > blobLength) {
+                throw new IOException("corrupt tweet snapshot: text " + (i - 1) + " at [" + previous + ", "
+                        + offset + ") outside blob of length " + blobLength);
+            }
+            previous = offset;
+        }
+        if (previous != blobLength) {
+            throw new IOException("corrupt tweet snapshot: texts end at " + previous + " in blob of length "
+                    + blobLength);
+        }
+    }
+
+    /*
+     * Check every timestamp, author id and dictionary offset, so that get()
+     * can decode any tweet.
+     */
+    private void checkEntries(int authorCount, long dictBlobLength) throws IOException {
+        for (int i = 0; i < size; i++) {
+            long second = seconds.getLong(8 * i);
+            int nano = nanos.getInt(4 * i);
+            if (second < Instant.MIN.getEpochSecond() || second > Instant.MAX.getEpochSecond()
+                    || nano < 0 || nano >= 1_000_000_000) {
+                throw new IOException("corrupt tweet snapshot: tweet " + i + " has timestamp " + second + "s "
+                        + nano + "ns");
+            }
+            int author = authors.getInt(4 * i);
+            if (author < 0 || author >= authorCount) {
+                throw new IOException("corrupt tweet snapshot: tweet " + i + " has author " + author + " of "
+                        + authorCount);
+            }
+        }
+        int previous = dictOffsets.getInt(0);
+        if (previous != 0) {
+            throw new IOException("corrupt tweet snapshot: first author offset " + previous);
+        }
+        for (int k = 1; k <= authorCount; k++) {
+            int offset = dictOffsets.getInt(4 * k);
+            if (offset < previous || offset > dictBlobLength) {
+                throw new IOException("corrupt tweet snapshot: author " + (k - 1) + " at [" + previous + ", "
+                        + offset + ") outside dictionary of length " + dictBlobLength);
+            }
+            previous = offset;
+        }
+        if (previous != dictBlobLength) {
+            throw new IOException("corrupt tweet snapshot: authors end at " + previous
+                    + " in dictionary of length " + dictBlobLength);
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long[] sections, int section) throws IOException {
+        long length = sections[section + 1] - sections[section];
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("corrupt tweet snapshot: section " + section + " has length " + length);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, sections[section], length);
+    }
+
+    /**
+     * Open a snapshot file. The file is mapped and its offsets, author ids
+     * and timestamps are checked; no tweet is decoded until it is requested.
+     *
+     * @param file
+     *            a file written by write()
+     * @return an immutable list of the tweets in file, in the order written
+     * @throws IOException if file cannot be read, is not a tweet snapshot, or
+     *         is corrupt: its header's sections do not match its counts and
+     *         length, or an entry's offset, author id or timestamp is out of
+     *         range
+     */
+    public static TweetSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new TweetSnapshot(channel); // mappings stay valid after close
+        }
+    }
+
+    /**
+     * Write tweets to a snapshot file, replacing any existing file.
+     *
+     * @param tweets
+     *            at most MAX_TWEETS tweets to write, not modified by this
+     *            method; no author or text may contain an unpaired
+     *            surrogate, which UTF-8 cannot encode, and the distinct
+     *            authors, and each text, must take at most Integer.MAX_VALUE
+     *            bytes of UTF-8, the limits open() accepts
+     * @param file
+     *            file to write
+     * @throws IOException if file cannot be written
+     * @throws IllegalArgumentException if tweets break one of these limits;
+     *         file is then left untouched
+     */
+    public static void write(List<Tweet> tweets, Path file) throws IOException {
+        int n = tweets.size();
+        if (n > MAX_TWEETS) {
+            throw new IllegalArgumentException("a snapshot holds at most " + MAX_TWEETS + " tweets, not " + n);
+        }
+        Map<String, Integer> dictionary = new HashMap<>();
+        int[] authorIds = new int[n];
+        long blobLength = 0;
+        long dictBlobLength = 0;
+        int i = 0;
+        for (Tweet tweet : tweets) {
+            Integer authorId = dictionary.get(tweet.getAuthor());
+            if (authorId == null) {
+                authorId = dictionary.size();
+                dictionary.put(tweet.getAuthor(), authorId);
+                dictBlobLength += utf8Length(tweet.getAuthor());
+            }
+            authorIds[i++] = authorId;
+            long textLength = utf8Length(tweet.getText());
+            if (textLength > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("text of tweet " + tweet.getId() + " is too long for a snapshot");
+            }
+            blobLength += textLength;
+        }
+        if (dictBlobLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("too many distinct authors for a snapshot");
+        }
+        String[] names = new String[dictionary.size()];
+        for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+            names[entry.getValue()] = entry.getKey();
+        }
+
+        long[] sections = new long[SECTIONS];
+        sections[0] = HEADER_BYTES;
+        sections[1] = sections[0] + 8L * n;
+        sections[2] = sections[1] + 8L * n;
+        sections[3] = sections[2] + 4L * n;
+        sections[4] = sections[3] + 4L * n;
+        sections[5] = sections[4] + 8L * (n + 1);
+        sections[6] = sections[5] + blobLength;
+        sections[7] = sections[6] + 4L * (names.length + 1);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(n);
+            out.writeInt(names.length);
+            for (long section : sections) {
+                out.writeLong(section);
+            }
+            for (Tweet tweet : tweets) {
+                out.writeLong(tweet.getId());
+            }
+            for (Tweet tweet : tweets) {
+                out.writeLong(tweet.getTimestamp().getEpochSecond());
+            }
+            for (Tweet tweet : tweets) {
+                out.writeInt(tweet.getTimestamp().getNano());
+            }
+            for (int authorId : authorIds) {
+                out.writeInt(authorId);
+            }
+            long textOffset = 0;
+            out.writeLong(textOffset);
+            for (Tweet tweet : tweets) {
+                textOffset += utf8Length(tweet.getText());
+                out.writeLong(textOffset);
+            }
+            for (Tweet tweet : tweets) {
+                out.write(tweet.getText().getBytes(StandardCharsets.UTF_8));
+            }
+            int nameOffset = 0;
+            out.writeInt(nameOffset);
+            for (String name : names) {
+                nameOffset += (int) utf8Length(name);
+                out.writeInt(nameOffset);
+            }
+            for (String name : names) {
+                out.write(name.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * @return number of tweets in this snapshot
+     */
+    @Override public int size() {
+        return size;
+    }
+
+    /**
+     * @param index
+     *            position of a tweet, 0 <= index < size()
+     * @return the tweet at index, decoded from the snapshot
+     */
+    @Override public Tweet get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of range for size " + size);
+        }
+        long id = ids.getLong(index * 8);
+        Instant timestamp = Instant.ofEpochSecond(seconds.getLong(index * 8), nanos.getInt(index * 4));
+        long textStart = textOffsets.getLong(index * 8);
+        long textEnd = textOffsets.getLong((index + 1) * 8);
+        return new Tweet(id, author(authors.getInt(index * 4)), text(textStart, textEnd), timestamp);
+    }
+
+    /*
+     * @return the k-th dictionary entry, decoding and caching it on first use
+     */
+    private String author(int k) {
+        String name = authorNames[k];
+        if (name == null) {
+            int start = dictOffsets.getInt(k * 4);
+            int end = dictOffsets.getInt((k + 1) * 4);
+            byte[] bytes = new byte[end - start];
+            ByteBuffer entry = dictBlob.duplicate();
+            entry.position(start);
+            entry.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+            authorNames[k] = name; // racy but benign: every thread stores an equal String
+        }
+        return name;
+    }
+
+    /*
+     * @return the text stored in blob bytes [start, end), which may span segments
+     */
+    private String text(long start, long end) {
+        byte[] bytes = new byte[(int) (end - start)];
+        for (int i = 0; i < bytes.length; ) {
+            long position = start + i;
+            ByteBuffer segment = blob[(int) (position / SEGMENT_BYTES)].duplicate();
+            segment.position((int) (position % SEGMENT_BYTES));
+            int count = Math.min(bytes.length - i, segment.remaining());
+            segment.get(bytes, i, count);
+            i += count;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * @return number of bytes in the UTF-8 encoding of s
+     * @throws IllegalArgumentException if s contains an unpaired surrogate
+     */
+    private static long utf8Length(String s) {
+        long length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (!Character.isSurrogate(c)) {
+                length += 3;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                // String.getBytes would silently write '?' for it
+                throw new IllegalArgumentException("unpaired surrogate at index " + i + " of " + s);
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,170 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * Streaming counterpart of TweetReader. Reads the same JSON array of tweets,
+ * but walks it with the javax.json event parser and produces one Tweet at a
+ * time, so memory use does not grow with the size of the feed.
+ *
+ * Only the id, user.screen_name, text and created_at fields of each tweet are
+ * extracted (see TweetExtractor); every other value is skipped without being
+ * materialized.
+ */
+public class TweetStreamReader implements Iterator<Tweet>, Closeable {
+
+    private final JsonParser parser;
+    private final UsernameTable usernames;
+    private boolean started = false;
+    private boolean finished = false;
+    private Tweet next = null;
+    /* Rep invariant:
+     *    finished implies next == null
+     */
+
+    /**
+     * Make a reader over a stream containing a JSON array of tweets.
+     *
+     * @param reader
+     *            stream to read from; closed when this reader is closed.
+     */
+    public TweetStreamReader(Reader reader) {
+        this(reader, null);
+    }
+
+    /**
+     * Make a reader over a stream containing a JSON array of tweets, whose
+     * authors are interned in a username table.
+     *
+     * @param reader
+     *            stream to read from; closed when this reader is closed.
+     * @param usernames
+     *            table giving the canonical lowercase instance of each author,
+     *            or null to keep authors as they appear in the stream
+     */
+    public TweetStreamReader(Reader reader, UsernameTable usernames) {
+        this.parser = Json.createParser(reader);
+        this.usernames = usernames;
+    }
+
+    /**
+     * Get a lazily-parsed stream of tweets from a web server.
+     *
+     * @param url
+     *            URL of server to retrieve tweets from
+     * @return a sequential stream of the tweets served at url, in order. The
+     *         connection is released when the stream is closed.
+     * @throws IOException if the url is invalid, the server is unreachable,
+     *                     or some other network-related error occurs.
+     */
+    public static Stream<Tweet> streamTweetsFromWeb(URL url) throws IOException {
+        return streamTweets(new InputStreamReader(url.openStream()));
+    }
+
+    /**
+     * Get a lazily-parsed stream of tweets.
+     *
+     * @param reader
+     *            stream containing a JSON array of tweets
+     * @return a sequential stream of the tweets in reader, in order. The reader
+     *         is closed when the stream is closed.
+     */
+    public static Stream<Tweet> streamTweets(Reader reader) {
+        TweetStreamReader tweets = new TweetStreamReader(reader);
+        Spliterator<Tweet> spliterator = Spliterators.spliteratorUnknownSize(tweets,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(tweets::close);
+    }
+
+    /**
+     * @return true if the array has another tweet
+     * @throws JsonException if the input is not a well-formed array of tweets
+     */
+    @Override public boolean hasNext() {
+        if (next == null && !finished) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    /**
+     * @return the next tweet in the array
+     * @throws NoSuchElementException if there are no more tweets
+     * @throws JsonException if the input is not a well-formed array of tweets
+     */
+    @Override public Tweet next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Tweet tweet = next;
+        next = null;
+        return tweet;
+    }
+
+    /**
+     * Release the underlying stream.
+     */
+    @Override public void close() {
+        finished = true;
+        next = null;
+        try {
+            parser.close();
+        } catch (JsonException je) {
+            if (je.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) je.getCause());
+            }
+            throw je;
+        }
+    }
+
+    /*
+     * Parse the next tweet out of the array.
+     *
+     * @return the next tweet, or null if the end of the array was reached.
+     */
+    private Tweet advance() {
+        if (!started) {
+            expect(Event.START_ARRAY);
+            started = true;
+        }
+        Event event = parser.next();
+        switch (event) {
+        case START_OBJECT:
+            return TweetExtractor.readTweet(parser, usernames);
+        case END_ARRAY:
+            finished = true;
+            return null;
+        default:
+            throw new JsonException("Unexpected event " + event + " in array of tweets");
+        }
+    }
+
+    private void expect(Event expected) {
+        if (!parser.hasNext()) {
+            throw new JsonException("Expected " + expected + " but input ended");
+        }
+        Event event = parser.next();
+        if (event != expected) {
+            throw new JsonException("Expected " + expected + " but found " + event);
+        }
+    }
+}
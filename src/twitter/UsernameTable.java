@@ -0,0 +1,241 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Mutable symbol table of Twitter usernames. Since usernames are
+ * case-insensitive, each distinct username is stored once, in lowercase, and
+ * is given a dense int id (0, 1, 2, ... in order of first appearance).
+ *
+ * Lookups work directly on a range of chars, so finding an already-known
+ * username in tweet text allocates nothing. Every returned String for a given
+ * username is the same canonical instance.
+ *
+ * This class is not thread-safe: to intern from several threads, give each
+ * its own table and merge them afterwards, as TweetFileReader does. A table
+ * that is no longer modified, such as one inside an immutable FollowsGraph,
+ * may be read from any number of threads once safely published.
+ */
+public class UsernameTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int[] slots = new int[2 * INITIAL_CAPACITY];
+    private int size = 0;
+
+    /* Abstraction function:
+     *    maps id k (0 <= k < size) to the username names[k]
+     * Rep invariant:
+     *    names[0..size) are distinct, nonempty, lowercase usernames
+     *    hashes[k] == hash(names[k]) for 0 <= k < size
+     *    slots.length is a power of two and more than 2 * size
+     *    slots is an open-addressing hash table with linear probing: each
+     *      slot is 0 (empty) or k+1 for the id k stored there, and every id
+     *      appears in exactly one slot
+     * Safety from rep exposure:
+     *    arrays are never returned; names are immutable Strings
+     */
+
+    /**
+     * Make an empty table.
+     */
+    public UsernameTable() {
+    }
+
+    /**
+     * Get the id of a username, adding it if it is not yet in the table.
+     *
+     * @param username
+     *            a Twitter username, in any case
+     * @return the id of username
+     */
+    public int id(CharSequence username) {
+        return id(username, 0, username.length());
+    }
+
+    /**
+     * Get the id of a username found within a larger text, adding it if it is
+     * not yet in the table.
+     *
+     * @param text
+     *            text containing a Twitter username at [start, end)
+     * @param start
+     *            index of the first char of the username
+     * @param end
+     *            index just past the last char of the username
+     * @return the id of the username
+     */
+    public int id(CharSequence text, int start, int end) {
+        int hash = hash(text, start, end);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return add(text, start, end, hash, slot);
+            }
+            int id = entry - 1;
+            if (hashes[id] == hash && matches(names[id], text, start, end)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Find the id of a username without adding it.
+     *
+     * @param username
+     *            a Twitter username, in any case
+     * @return the id of username, or -1 if it is not in the table
+     */
+    public int find(CharSequence username) {
+        int end = username.length();
+        int hash = hash(username, 0, end);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int id = entry - 1;
+            if (hashes[id] == hash && matches(names[id], username, 0, end)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Get the canonical instance of a username, adding it if necessary.
+     *
+     * @param username
+     *            a Twitter username, in any case
+     * @return the username in lowercase; the same instance for every username
+     *         that is equal ignoring case
+     */
+    public String intern(CharSequence username) {
+        return name(id(username));
+    }
+
+    /**
+     * Get the canonical instance of a username found within a larger text,
+     * adding it if necessary.
+     *
+     * @param text
+     *            text containing a Twitter username at [start, end)
+     * @param start
+     *            index of the first char of the username
+     * @param end
+     *            index just past the last char of the username
+     * @return the username in lowercase; the same instance for every username
+     *         that is equal ignoring case
+     */
+    public String intern(CharSequence text, int start, int end) {
+        return name(id(text, start, end));
+    }
+
+    /**
+     * @param id
+     *            an id in this table, 0 <= id < size()
+     * @return the lowercase username with that id
+     */
+    public String name(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("no username with id " + id);
+        }
+        return names[id];
+    }
+
+    /**
+     * @return number of distinct usernames in the table; ids range over
+     *         0 .. size()-1
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a new set of every username in the table, in lowercase
+     */
+    public Set<String> names() {
+        return new HashSet<>(Arrays.asList(names).subList(0, size));
+    }
+
+    private int add(CharSequence text, int start, int end, int hash, int slot) {
+        if (end <= start) {
+            throw new IllegalArgumentException("username must be nonempty");
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, 2 * size);
+            hashes = Arrays.copyOf(hashes, 2 * size);
+        }
+        int id = size++;
+        names[id] = canonical(text, start, end);
+        hashes[id] = hash;
+        if (2 * size >= slots.length) {
+            rehash(2 * slots.length);
+        } else {
+            slots[slot] = id + 1;
+        }
+        return id;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    /*
+     * @return text[start, end) in lowercase: text itself if it is already a
+     *         whole lowercase String, so that a table merged from another
+     *         table's names shares their instances
+     */
+    private static String canonical(CharSequence text, int start, int end) {
+        if (text instanceof String && start == 0 && end == text.length()) {
+            boolean lowercase = true;
+            for (int i = start; i < end && lowercase; i++) {
+                lowercase = MentionScanner.toLowerCase(text.charAt(i)) == text.charAt(i);
+            }
+            if (lowercase) {
+                return (String) text;
+            }
+        }
+        return MentionScanner.toLowerCase(text, start, end);
+    }
+
+    /*
+     * @return hash of the lowercase form of text[start, end), well spread in
+     *         its low bits
+     */
+    private static int hash(CharSequence text, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + MentionScanner.toLowerCase(text.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(String name, CharSequence text, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (name.charAt(i - start) != MentionScanner.toLowerCase(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
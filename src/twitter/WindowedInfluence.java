@@ -0,0 +1,335 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Mutable ranking of users by recent influence over a stream of tweets.
+ *
+ * As in SocialNetwork, an author who @-mentions another user is evidence that
+ * the author follows them. Here each such follows edge also has a weight
+ * that decays exponentially with the time since the author last mentioned
+ * that user, halving every half-life, and the edge expires entirely once that
+ * mention is older than the window. A user's influence is the total weight of
+ * the edges to them, at the current time: the latest timestamp seen, or a
+ * later one given to advanceTo().
+ *
+ * Weights are stored scaled to a reference time t0, as exp(rate * (t - t0)),
+ * so that decay multiplies every score by the same factor and never changes
+ * the ranking: time can advance without touching any score. Only new
+ * mentions and expiries change scores, each in O(log n) time. The reference
+ * time is moved forward before the stored values could overflow, which
+ * recomputes every edge's weight from its timestamp and re-sorts the
+ * ranking, in O(e + n log n) time for e active edges; this happens at most
+ * once per MAX_EXPONENT / ln 2 (about 430) half-lives of advancing time.
+ *
+ * Since an edge's weight can fall to 2^(-window / halfLife) before it
+ * expires, the window may be at most MAX_HALF_LIVES half-lives long, so that
+ * every unexpired edge keeps a nonzero weight instead of underflowing to 0.
+ *
+ * This class is not thread-safe.
+ */
+public class WindowedInfluence {
+
+    /**
+     * Longest window allowed, in half-lives: the weight of the oldest edge in
+     * the window, 2^-MAX_HALF_LIVES, is still a normal double.
+     */
+    public static final int MAX_HALF_LIVES = 1000;
+
+    /*
+     * The reference time is moved up to the current time once stored weights
+     * could reach exp(MAX_EXPONENT).
+     */
+    private static final double MAX_EXPONENT = 300;
+
+    private final long windowNanos;
+    private final double ratePerSecond;
+
+    private final UsernameTable users = new UsernameTable();
+    private double[] scores = new double[16];
+    private int[] activeEdges = new int[16];
+    private final Map<Long, Mention> latest = new HashMap<>();
+    private final PriorityQueue<Mention> byTime = new PriorityQueue<>(
+            (a, b) -> Long.compare(a.epochNanos, b.epochNanos));
+    private TreeSet<Integer> ranking = new TreeSet<>(this::compareRank);
+    private long referenceNanos = Long.MIN_VALUE;
+    private long nowNanos = Long.MIN_VALUE;
+
+    // author and time of the tweet being scanned
+    private int currentAuthor;
+    private long currentTime;
+    private final MentionScanner.MentionVisitor addMention = (text, start, end) -> {
+        int mentioned = addUser(text, start, end);
+        if (mentioned != currentAuthor) {
+            addMention(currentAuthor, mentioned, currentTime);
+        }
+    };
+
+    /* Abstraction function:
+     *    represents the influence ranking at time nowNanos (epoch nanoseconds)
+     *    of the follows edges in latest, where edge (a, b) was last mentioned
+     *    at latest.get(edge(a, b)).epochNanos and the user with id b has
+     *    influence scores[b] * exp(-ratePerSecond * (nowNanos - referenceNanos) / 1e9)
+     * Rep invariant:
+     *    byTime contains exactly the values of latest, plus superseded
+     *      mentions that are no longer values of latest
+     *    every value of latest is within the window of nowNanos
+     *    scores[b] is the sum of m.weight over values m of latest to b, and
+     *      activeEdges[b] is their number; scores[b] == 0 if activeEdges[b] == 0
+     *    ranking contains exactly the ids b with activeEdges[b] > 0
+     *    if nowNanos == Long.MIN_VALUE, there are no edges
+     *    currentAuthor and currentTime are only meaningful during addTweets()
+     * Safety from rep exposure:
+     *    all fields are private, and none is ever returned
+     */
+
+    /**
+     * Make an empty ranking.
+     *
+     * @param window
+     *            how long a mention counts as evidence, > 0 and at most
+     *            MAX_HALF_LIVES * halfLife
+     * @param halfLife
+     *            time for a mention's weight to halve, > 0
+     */
+    public WindowedInfluence(Duration window, Duration halfLife) {
+        if (window.isNegative() || window.isZero() || halfLife.isNegative() || halfLife.isZero()) {
+            throw new IllegalArgumentException("requires positive window and half-life");
+        }
+        if ((double) window.toNanos() / halfLife.toNanos() > MAX_HALF_LIVES) {
+            throw new IllegalArgumentException("requires window of at most " + MAX_HALF_LIVES
+                    + " half-lives, so that weights do not underflow");
+        }
+        this.windowNanos = window.toNanos();
+        this.ratePerSecond = Math.log(2) / (halfLife.toNanos() / 1e9);
+        checkRep();
+    }
+
+    private void checkRep() {
+        assert scores.length == activeEdges.length && scores.length >= users.size();
+        assert ranking.size() <= users.size();
+    }
+
+    /**
+     * Add the evidence in new tweets, advancing the current time to the
+     * latest of their timestamps if it is later. Tweets may arrive in any
+     * order; mentions already older than the window are ignored.
+     *
+     * @param tweets
+     *            tweets to add, not modified by this method
+     */
+    public void addTweets(List<Tweet> tweets) {
+        for (Tweet tweet : tweets) {
+            long time = epochNanos(tweet.getTimestamp());
+            if (time > nowNanos) {
+                advance(time);
+            }
+            if (time < nowNanos - windowNanos) {
+                continue;
+            }
+            currentAuthor = addUser(tweet.getAuthor(), 0, tweet.getAuthor().length());
+            currentTime = time;
+            MentionScanner.scan(tweet.getText(), addMention);
+        }
+        checkRep();
+    }
+
+    /**
+     * Advance the current time, expiring mentions that fall out of the window.
+     *
+     * @param now
+     *            new current time; ignored if earlier than now()
+     */
+    public void advanceTo(Instant now) {
+        long time = epochNanos(now);
+        if (time > nowNanos) {
+            advance(time);
+        }
+        checkRep();
+    }
+
+    /**
+     * @return the current time, or null if no tweet has been added and
+     *         advanceTo() has not been called
+     */
+    public Instant now() {
+        return nowNanos == Long.MIN_VALUE ? null : instant(nowNanos);
+    }
+
+    /**
+     * @return number of follows edges inside the window
+     */
+    public int activeEdgeCount() {
+        return latest.size();
+    }
+
+    /**
+     * @param username
+     *            Twitter username, in any case
+     * @return influence of that user at the current time: the total weight of
+     *         unexpired edges to them, where an edge last mentioned at time t
+     *         weighs 2^(-(now - t) / halfLife); 0 if there are none
+     */
+    public double score(String username) {
+        int id = users.find(username);
+        if (id < 0 || activeEdges[id] == 0) {
+            return 0;
+        }
+        return scores[id] * Math.exp(-ratePerSecond * seconds(nowNanos - referenceNanos));
+    }
+
+    /**
+     * Find the most influential users at the current time, in time
+     * proportional to k.
+     *
+     * @param k
+     *            number of users wanted, k >= 0
+     * @return the min(k, n) users with the highest scores, as lowercase
+     *         usernames, in descending order of score, where n is the number
+     *         of users with a nonzero score; users with equal scores are in
+     *         ascending order of username
+     */
+    public List<String> influencers(int k) {
+        List<String> result = new ArrayList<>(Math.min(k, ranking.size()));
+        Iterator<Integer> ids = ranking.iterator();
+        while (result.size() < k && ids.hasNext()) {
+            result.add(users.name(ids.next()));
+        }
+        return result;
+    }
+
+    /*
+     * @see Object.toString()
+     */
+    @Override public String toString() {
+        return "WindowedInfluence[" + activeEdgeCount() + " edges at " + now() + "]";
+    }
+
+    private void advance(long time) {
+        nowNanos = time;
+        if (referenceNanos == Long.MIN_VALUE) {
+            referenceNanos = time;
+        }
+        long cutoff = time - windowNanos;
+        while (!byTime.isEmpty() && byTime.peek().epochNanos < cutoff) {
+            Mention expired = byTime.poll();
+            if (latest.get(expired.edge) == expired) {
+                latest.remove(expired.edge);
+                changeScore(expired.followee, -expired.weight, -1);
+            }
+        }
+        if (ratePerSecond * seconds(time - referenceNanos) > MAX_EXPONENT) {
+            rebase(time);
+        }
+    }
+
+    private void addMention(int author, int mentioned, long time) {
+        long edge = FollowsGraph.edge(author, mentioned);
+        Mention previous = latest.get(edge);
+        if (previous != null && previous.epochNanos >= time) {
+            return;
+        }
+        Mention mention = new Mention(edge, mentioned, time,
+                Math.exp(ratePerSecond * seconds(time - referenceNanos)));
+        latest.put(edge, mention);
+        byTime.add(mention);
+        if (previous == null) {
+            changeScore(mentioned, mention.weight, +1);
+        } else {
+            changeScore(mentioned, mention.weight - previous.weight, 0);
+        }
+    }
+
+    private void changeScore(int id, double delta, int edgeDelta) {
+        ranking.remove(id);
+        activeEdges[id] += edgeDelta;
+        if (activeEdges[id] == 0) {
+            scores[id] = 0; // rather than let rounding errors accumulate
+        } else {
+            scores[id] += delta;
+            ranking.add(id);
+        }
+    }
+
+    /*
+     * Move the reference time to time, recomputing every stored weight and
+     * re-sorting the ranking: O(e + n log n) for e active edges and n ranked
+     * users.
+     */
+    private void rebase(long time) {
+        referenceNanos = time;
+        for (Mention mention : latest.values()) {
+            // from its own timestamp, not by one shared factor: a long gap can
+            // make that factor underflow to 0 although every unexpired weight,
+            // at least 2^-MAX_HALF_LIVES, is still a normal double
+            mention.weight = Math.exp(ratePerSecond * seconds(mention.epochNanos - time));
+        }
+        Arrays.fill(scores, 0);
+        for (Mention mention : latest.values()) {
+            scores[mention.followee] += mention.weight;
+        }
+        TreeSet<Integer> rebuilt = new TreeSet<>(this::compareRank);
+        rebuilt.addAll(ranking);
+        ranking = rebuilt;
+    }
+
+    private int addUser(CharSequence text, int start, int end) {
+        int id = users.id(text, start, end);
+        if (id == scores.length) {
+            scores = Arrays.copyOf(scores, 2 * id);
+            activeEdges = Arrays.copyOf(activeEdges, 2 * id);
+        }
+        return id;
+    }
+
+    /*
+     * Score descending, then username ascending.
+     */
+    private int compareRank(Integer a, Integer b) {
+        int byScore = Double.compare(scores[b], scores[a]);
+        return byScore != 0 ? byScore : users.name(a).compareTo(users.name(b));
+    }
+
+    private static long epochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    private static Instant instant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                Math.floorMod(epochNanos, 1_000_000_000L));
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    /*
+     * The latest mention of one follows edge, with its weight scaled to the
+     * reference time.
+     */
+    private static class Mention {
+        final long edge;
+        final int followee;
+        final long epochNanos;
+        double weight;
+
+        Mention(long edge, int followee, long epochNanos, double weight) {
+            this.edge = edge;
+            this.followee = followee;
+            this.epochNanos = epochNanos;
+            this.weight = weight;
+        }
+    }
+}
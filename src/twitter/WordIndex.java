@@ -0,0 +1,211 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable inverted index of a list of tweets by the words in their text, for
+ * answering many Filter.containing queries against the same corpus.
+ *
+ * Words are the space-delimited words of Filter.containing's spec, compared
+ * without regard to case. Each distinct word maps to a sorted posting list of
+ * the positions of the tweets that contain it, so a query is a union of
+ * posting lists rather than a scan of every tweet's text.
+ */
+public class WordIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    /*
+     * Unions with more postings than corpus size / DENSE_UNION_RATIO are
+     * merged through a bitset instead of by sorting.
+     */
+    private static final int DENSE_UNION_RATIO = 32;
+
+    private final List<Tweet> tweets;
+    private final Map<String, int[]> postings;
+
+    /* Abstraction function:
+     *    represents the corpus tweets, where postings.get(w) lists the indices
+     *    of the tweets whose text contains a word that folds to w
+     * Rep invariant:
+     *    every key of postings is a nonempty folded word without spaces
+     *    every value of postings is nonempty and strictly increasing, with
+     *      elements in 0 .. tweets.size()-1
+     * Safety from rep exposure:
+     *    tweets is a private copy of the caller's list, and is only returned
+     *      through new lists; posting arrays are copied before being returned
+     */
+
+    /**
+     * Build an index of a corpus.
+     *
+     * @param tweets
+     *            the corpus; not modified by this constructor, and later
+     *            changes to it do not affect the index
+     */
+    public WordIndex(List<Tweet> tweets) {
+        this.tweets = new ArrayList<>(tweets);
+        Map<String, IntList> building = new HashMap<>();
+        for (int i = 0; i < this.tweets.size(); i++) {
+            String text = this.tweets.get(i).getText();
+            int length = text.length();
+            int start = 0;
+            while (start < length) {
+                if (Words.isSpace(text.charAt(start))) {
+                    start++;
+                    continue;
+                }
+                int end = start + 1;
+                while (end < length && !Words.isSpace(text.charAt(end))) {
+                    end++;
+                }
+                String word = Words.fold(text, start, end);
+                IntList list = building.get(word);
+                if (list == null) {
+                    list = new IntList();
+                    building.put(word, list);
+                }
+                list.addIfNotLast(i);
+                start = end;
+            }
+        }
+        this.postings = new HashMap<>(building.size() * 4 / 3 + 1);
+        for (Map.Entry<String, IntList> entry : building.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toArray());
+        }
+        checkRep();
+    }
+
+    private void checkRep() {
+        for (int[] list : postings.values()) {
+            assert list.length > 0;
+            assert list[list.length - 1] < tweets.size();
+        }
+    }
+
+    /**
+     * Find tweets that contain certain words, as the spec of Filter.containing
+     * describes.
+     *
+     * @param words
+     *            a list of words to search for in the tweets. A word is a
+     *            nonempty sequence of nonspace characters.
+     * @return all and only the tweets in the corpus whose text includes at
+     *         least one of the words, ignoring case, as a whole word. The
+     *         returned tweets are in the same order as in the corpus.
+     */
+    public List<Tweet> containing(List<String> words) {
+        int[] matches = positions(words);
+        List<Tweet> result = new ArrayList<>(matches.length);
+        for (int position : matches) {
+            result.add(tweets.get(position));
+        }
+        return result;
+    }
+
+    /**
+     * @param words
+     *            a list of words, as for containing()
+     * @return indices in the corpus of the tweets containing at least one of
+     *         the words, in increasing order
+     */
+    public int[] positions(List<String> words) {
+        List<int[]> lists = new ArrayList<>(words.size());
+        long total = 0;
+        for (String word : words) {
+            int[] list = postings.getOrDefault(Words.fold(word), EMPTY);
+            if (list.length > 0) {
+                lists.add(list);
+                total += list.length;
+            }
+        }
+        if (lists.isEmpty()) {
+            return EMPTY.clone();
+        }
+        if (lists.size() == 1) {
+            return lists.get(0).clone();
+        }
+        if (total > tweets.size() / DENSE_UNION_RATIO) {
+            BitSet union = new BitSet(tweets.size());
+            for (int[] list : lists) {
+                for (int position : list) {
+                    union.set(position);
+                }
+            }
+            return union.stream().toArray();
+        }
+        int[] union = new int[(int) total];
+        int size = 0;
+        for (int[] list : lists) {
+            System.arraycopy(list, 0, union, size, list.length);
+            size += list.length;
+        }
+        Arrays.sort(union);
+        int distinct = 0;
+        for (int i = 0; i < union.length; i++) {
+            if (distinct == 0 || union[i] != union[distinct - 1]) {
+                union[distinct++] = union[i];
+            }
+        }
+        return Arrays.copyOf(union, distinct);
+    }
+
+    /**
+     * @param words
+     *            a list of words, as for containing()
+     * @return total length of the posting lists of the words: an upper bound on
+     *         the number of tweets that containing(words) returns, computed
+     *         without building the result
+     */
+    public long postingCount(List<String> words) {
+        long total = 0;
+        for (String word : words) {
+            total += postings.getOrDefault(Words.fold(word), EMPTY).length;
+        }
+        return total;
+    }
+
+    /**
+     * @return number of tweets in the corpus
+     */
+    public int size() {
+        return tweets.size();
+    }
+
+    /**
+     * @return number of distinct words in the corpus, ignoring case
+     */
+    public int wordCount() {
+        return postings.size();
+    }
+
+    /*
+     * Growable list of ints, used while building posting lists.
+     */
+    private static class IntList {
+        private int[] elements = new int[4];
+        private int size = 0;
+
+        void addIfNotLast(int value) {
+            if (size > 0 && elements[size - 1] == value) {
+                return;
+            }
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, 2 * size);
+            }
+            elements[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(elements, size);
+        }
+    }
+}
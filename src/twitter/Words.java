@@ -0,0 +1,61 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+/**
+ * Word rules shared by the keyword search structures, following the spec of
+ * Filter.containing: tweet text is a sequence of nonempty words bounded by
+ * space characters and the ends of the string, and word comparison is not
+ * case-sensitive.
+ */
+class Words {
+
+    private Words() {
+    }
+
+    /**
+     * @param c
+     *            a character
+     * @return true iff c separates words
+     */
+    static boolean isSpace(char c) {
+        return Character.isWhitespace(c);
+    }
+
+    /**
+     * @param c
+     *            a character
+     * @return the case-folded form of c; two words are equal ignoring case iff
+     *         their folded chars are equal
+     */
+    static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * @param text
+     *            text containing a word at [start, end)
+     * @param start
+     *            index of the first char of the word
+     * @param end
+     *            index just past the last char of the word
+     * @return the case-folded form of the word
+     */
+    static String fold(CharSequence text, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = fold(text.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @param word
+     *            a word
+     * @return the case-folded form of the word
+     */
+    static String fold(String word) {
+        return fold(word, 0, word.length());
+    }
+}
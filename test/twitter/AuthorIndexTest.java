@@ -0,0 +1,72 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class AuthorIndexTest {
+
+    /*
+     * Testing strategy for AuthorIndex:
+     * - corpus: empty, one author, many authors interleaved
+     * - query: author present, absent, in different case
+     * - results must equal Filter.writtenBy, including order
+     * - later changes to the caller's list do not affect the index
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyCorpus() {
+        AuthorIndex index = new AuthorIndex(Collections.<Tweet>emptyList());
+
+        assertTrue("expected no tweets", index.writtenBy("alyssa").isEmpty());
+        assertEquals(0, index.count("alyssa"));
+        assertEquals(0, index.authorCount());
+    }
+
+    @Test
+    public void testMatchesFilterWrittenBy() {
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            String author = (i % 3 == 0 ? "Alyssa" : "alyssa") + (i % 7);
+            tweets.add(new Tweet(i, author, "tweet " + i, d1.plusSeconds(i)));
+        }
+        AuthorIndex index = new AuthorIndex(tweets);
+
+        assertEquals("expected authors folded by case", 7, index.authorCount());
+        for (String query : Arrays.asList("alyssa0", "ALYSSA3", "aLySsA6", "alyssa7", "bbitdiddle")) {
+            List<Tweet> expected = Filter.writtenBy(tweets, query);
+            assertEquals(query, expected, index.writtenBy(query));
+            assertEquals(query, expected.size(), index.count(query));
+            int[] positions = index.positions(query);
+            for (int i = 0; i < positions.length; i++) {
+                assertEquals(query, expected.get(i), tweets.get(positions[i]));
+            }
+        }
+    }
+
+    @Test
+    public void testIndependentOfCallerList() {
+        List<Tweet> tweets = new ArrayList<>(Arrays.asList(new Tweet(1, "alyssa", "hi", d1)));
+        AuthorIndex index = new AuthorIndex(tweets);
+        tweets.set(0, new Tweet(2, "bbitdiddle", "hi", d1));
+
+        assertEquals(1, index.writtenBy("alyssa").get(0).getId());
+        assertTrue(index.estimatedBytes() > 0);
+    }
+}
@@ -0,0 +1,108 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CreatedAtParserTest {
+
+    /*
+     * Testing strategy for CreatedAtParser:
+     * - equivalence with ZonedDateTime.parse(text, ofPattern(...)).toInstant(),
+     *   the computation TweetReader performs
+     * - offset: zero, positive, negative, with nonzero minutes
+     * - date: leap day, year boundaries, before and after 1970
+     * - odd inputs handled by the fallback: day name contradicting the date,
+     *   day past end of month, wrong case, wrong length; result or exception
+     *   must match the formatter's
+     */
+
+    private static final DateTimeFormatter REFERENCE =
+            DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss Z yyyy", Locale.US);
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testTypicalValue() {
+        assertEquals(Instant.parse("2016-02-17T10:00:00Z"), CreatedAtParser.parse("Wed Feb 17 10:00:00 +0000 2016"));
+    }
+
+    @Test
+    public void testEdgeValues() {
+        String[] values = {
+            "Thu Jan 01 00:00:00 +0000 1970",
+            "Wed Dec 31 23:59:59 +0000 1969",
+            "Mon Feb 29 12:30:45 -0530 2016",
+            "Fri Dec 31 23:59:59 +1400 1999",
+            "Sat Jan 01 00:00:00 -1200 2000",
+            "Mon Jan 01 00:00:00 +1800 0001",
+            "Fri Dec 31 23:59:59 -1800 9999",
+        };
+        for (String value : values) {
+            assertEquals(value, reference(value), CreatedAtParser.parse(value));
+        }
+    }
+
+    @Test
+    public void testRandomValuesMatchFormatter() {
+        Random random = new Random(6005);
+        for (int i = 0; i < 100_000; i++) {
+            long epochSecond = (long) (random.nextDouble() * 8_000_000_000L) - 2_000_000_000L;
+            int offsetMinutes = (random.nextInt(37) - 18) * 60 + (random.nextBoolean() ? 0 : 30);
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds(
+                    Math.max(-18 * 3600, Math.min(18 * 3600, offsetMinutes * 60)));
+            String value = ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), offset).format(REFERENCE);
+
+            assertEquals(value, reference(value), CreatedAtParser.parse(value));
+            assertEquals(value, epochSecond, CreatedAtParser.parseEpochSecond(value));
+        }
+    }
+
+    @Test
+    public void testOddValuesMatchFormatter() {
+        String[] values = {
+            "Thu Feb 17 10:00:00 +0000 2016", // wrong day name
+            "Mon Feb 30 10:00:00 +0000 2016", // day past end of month
+            "wed Feb 17 10:00:00 +0000 2016", // lower case day name
+            "Wed Feb 17 24:00:00 +0000 2016", // hour out of range
+            "Wed Feb 17 10:00:60 +0000 2016", // leap second
+            "Wed Feb 17 10:00:00 +1900 2016", // offset out of range
+            "Wed Feb 17 10:00:00 +0000 20160", // five digit year
+            "Wed Feb 17 10:00:00 Z 2016",
+            "",
+        };
+        for (String value : values) {
+            Object expected;
+            try {
+                expected = reference(value);
+            } catch (DateTimeParseException dtpe) {
+                expected = DateTimeParseException.class;
+            }
+            Object actual;
+            try {
+                actual = CreatedAtParser.parse(value);
+            } catch (DateTimeParseException dtpe) {
+                actual = DateTimeParseException.class;
+            }
+            assertEquals(value, expected, actual);
+        }
+    }
+
+    private static Instant reference(String value) {
+        return ZonedDateTime.parse(value, REFERENCE).toInstant();
+    }
+}
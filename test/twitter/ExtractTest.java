@@ -203,8 +203,8 @@ public class ExtractTest {
     @Test
     public void testGetMentionedUsersSingleMention() {
         Set<String> mentionedUsers = Extract.getMentionedUsers(Arrays.asList(tweet21));
-        Set<String> expected = new HashSet<>(Arrays.asList("userC"));
-        assertEquals("expected mentioned user to be userC", expected, mentionedUsers);
+        Set<String> expected = new HashSet<>(Arrays.asList("userc"));
+        assertEquals("expected mentioned user to be userC", expected, lowercase(mentionedUsers));
     }
 
     /**
@@ -215,8 +215,8 @@ public class ExtractTest {
     @Test
     public void testGetMentionedUsersMultipleMentions() {
         Set<String> mentionedUsers = Extract.getMentionedUsers(Arrays.asList(tweet3));
-        Set<String> expected = new HashSet<>(Arrays.asList("userD", "UserC"));
-        assertEquals("expected mentioned users to be userC and userD", expected, mentionedUsers);
+        Set<String> expected = new HashSet<>(Arrays.asList("userd", "userc"));
+        assertEquals("expected mentioned users to be userC and userD", expected, lowercase(mentionedUsers));
     }
 
     /**
@@ -227,8 +227,8 @@ public class ExtractTest {
     @Test
     public void testGetMentionedUsersInvalidMention() {
         Set<String> mentionedUsers = Extract.getMentionedUsers(Arrays.asList(tweet4));
-        Set<String> expected = new HashSet<>(Arrays.asList("userE"));
-        assertEquals("expected mentioned user to be userE", expected, mentionedUsers);
+        Set<String> expected = new HashSet<>(Arrays.asList("usere"));
+        assertEquals("expected mentioned user to be userE", expected, lowercase(mentionedUsers));
     }
 
     /**
@@ -251,7 +251,7 @@ public class ExtractTest {
     public void testGetMentionedUsersSpecialCharacters() {
         Set<String> mentionedUsers = Extract.getMentionedUsers(Arrays.asList(tweet6));
         Set<String> expected = new HashSet<>(Arrays.asList("user_123", "user2"));
-        assertEquals("expected mentioned users to be user_123 and user2", expected, mentionedUsers);
+        assertEquals("expected mentioned users to be user_123 and user2", expected, lowercase(mentionedUsers));
     }
 
     /**
@@ -263,13 +263,42 @@ public class ExtractTest {
     @Test
     public void testGetMentionedUsersMixedMentions() {
         Set<String> mentionedUsers = Extract.getMentionedUsers(Arrays.asList(tweet21, tweet4));
-        Set<String> expected = new HashSet<>(Arrays.asList("userC","userE")); // Only valid mention from tweet21
-        assertEquals("Expected mentioned user to be userC", expected, mentionedUsers);
+        Set<String> expected = new HashSet<>(Arrays.asList("userc","usere")); // Only valid mention from tweet21
+        assertEquals("Expected mentioned user to be userC", expected, lowercase(mentionedUsers));
     }
 
 
     
     
+    /**
+     * Test case 8: Same username mentioned in different case across tweets,
+     * and mentions bounded by characters that are not valid in usernames.
+     * Expected Output: each username at most once, ignoring case.
+     */
+    @Test
+    public void testGetMentionedUsersBoundaries() {
+        Tweet tweet7 = new Tweet(7, "userG", "@ernie-bert, (@Ernie) a-@nope x@nope2 @@ @bert!", Instant.now());
+        Tweet tweet8 = new Tweet(8, "userH", "@ERNIE-BERT @BERT", Instant.now());
+
+        Set<String> mentionedUsers = Extract.getMentionedUsers(Arrays.asList(tweet7, tweet8));
+
+        Set<String> expected = new HashSet<>(Arrays.asList("ernie-bert", "ernie", "bert"));
+        assertEquals("expected each username once, ignoring case", expected, lowercase(mentionedUsers));
+    }
+
+    /*
+     * Usernames are case-insensitive, so compare mentioned users in lowercase,
+     * after checking that no username appears twice in different case.
+     */
+    private static Set<String> lowercase(Set<String> usernames) {
+        Set<String> lowercased = new HashSet<>();
+        for (String username : usernames) {
+            lowercased.add(username.toLowerCase());
+        }
+        assertEquals("expected each username at most once", usernames.size(), lowercased.size());
+        return lowercased;
+    }
+
 //    @Test
 //    public void testGetMentionedUsersNoMention() {
 //        Set<String> mentionedUsers = Extract.getMentionedUsers(Arrays.asList(tweet1));
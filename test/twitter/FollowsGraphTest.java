@@ -0,0 +1,156 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class FollowsGraphTest {
+
+    /*
+     * Testing strategy for FollowsGraph:
+     * - tweets: none, a few, thousands with random mentions
+     * - edges: none, repeated, self-follows, names in different case
+     * - queries: ids, names, following lists, follows(), asMap() lookups in
+     *   any case, iteration, equality with an equivalent HashMap
+     * - of(): a view from asMap(), a HashMap with mixed case, self-follows and
+     *   users that only appear as followees
+     * - influencers(k): k = 0, k < users, k > users, ties in follower count;
+     *   agrees with the prefix of the full ordering
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        FollowsGraph graph = FollowsGraph.fromTweets(Collections.<Tweet>emptyList());
+
+        assertEquals(0, graph.userCount());
+        assertEquals(0, graph.edgeCount());
+        assertTrue(graph.asMap().isEmpty());
+        assertEquals(-1, graph.id("alyssa"));
+    }
+
+    @Test
+    public void testEdges() {
+        FollowsGraph graph = FollowsGraph.fromTweets(Arrays.asList(
+                new Tweet(1, "Alyssa", "@bbitdiddle @BBitDiddle @alyssa", d1),
+                new Tweet(2, "bbitdiddle", "hi @ernie", d1),
+                new Tweet(3, "ALYSSA", "@Ernie", d1)));
+        int alyssa = graph.id("ALYSSA");
+        int bbitdiddle = graph.id("bbitdiddle");
+        int ernie = graph.id("ernie");
+
+        assertEquals(3, graph.userCount());
+        assertEquals(3, graph.edgeCount());
+        assertEquals("alyssa", graph.name(alyssa));
+        assertArrayEquals(new int[] { bbitdiddle, ernie }, graph.following(alyssa));
+        assertTrue(graph.follows(bbitdiddle, ernie));
+        assertFalse("expected no self-follows", graph.follows(alyssa, alyssa));
+        assertEquals(0, graph.followingCount(ernie));
+
+        Map<String, Set<String>> map = graph.asMap();
+        assertEquals(new HashSet<>(Arrays.asList("bbitdiddle", "ernie")), map.get("Alyssa"));
+        assertTrue(map.get("alyssa").contains("BBITDIDDLE"));
+        assertTrue(map.containsKey("ERNIE"));
+        assertTrue(map.get("ernie").isEmpty());
+        assertNull(map.get("nobody"));
+    }
+
+    @Test
+    public void testOf() {
+        FollowsGraph graph = FollowsGraph.fromTweets(Arrays.asList(new Tweet(1, "alyssa", "@bbitdiddle", d1)));
+        assertSame(graph, FollowsGraph.of(graph.asMap()));
+
+        Map<String, Set<String>> map = new HashMap<>();
+        map.put("Alyssa", new HashSet<>(Arrays.asList("alyssa", "BBITDIDDLE", "ernie")));
+        map.put("ALYSSA", new HashSet<>(Arrays.asList("bbitdiddle")));
+        FollowsGraph fromMap = FollowsGraph.of(map);
+
+        assertEquals(3, fromMap.userCount());
+        assertEquals(2, fromMap.edgeCount());
+        assertTrue(fromMap.follows(fromMap.id("alyssa"), fromMap.id("bbitdiddle")));
+    }
+
+    @Test
+    public void testInfluencers() {
+        FollowsGraph graph = FollowsGraph.fromTweets(Arrays.asList(
+                new Tweet(1, "alyssa", "@ernie @bert", d1),
+                new Tweet(2, "bbitdiddle", "@ernie @bert @alyssa", d1),
+                new Tweet(3, "zed", "@ernie", d1)));
+
+        assertEquals(Arrays.asList("ernie", "bert", "alyssa", "bbitdiddle", "zed"),
+                graph.influencers(Integer.MAX_VALUE));
+        assertEquals(Arrays.asList("ernie", "bert"), graph.influencers(2));
+        assertTrue(graph.influencers(0).isEmpty());
+        assertArrayEquals(new int[] { 1, 3, 2, 0, 0 }, graph.followerCounts());
+    }
+
+    @Test
+    public void testInfluencersPrefix() {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            tweets.add(new Tweet(i, "user" + random.nextInt(500),
+                    "@user" + random.nextInt(40) + " @user" + random.nextInt(500), d1));
+        }
+        FollowsGraph graph = FollowsGraph.fromTweets(tweets);
+        List<String> all = graph.influencers(graph.userCount());
+        int[] counts = graph.followerCounts();
+
+        for (int i = 1; i < all.size(); i++) {
+            int before = counts[graph.id(all.get(i - 1))];
+            int after = counts[graph.id(all.get(i))];
+            assertTrue("expected descending counts", before >= after);
+            assertTrue("expected ties by name", before > after || all.get(i - 1).compareTo(all.get(i)) < 0);
+        }
+        for (int k : new int[] { 1, 10, 100, 499 }) {
+            assertEquals(all.subList(0, k), graph.influencers(k));
+        }
+        assertEquals(all, SocialNetwork.influencers(graph.asMap()));
+    }
+
+    @Test
+    public void testMatchesHashMapGraph() {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<>();
+        Map<String, Set<String>> expected = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            String author = "user" + random.nextInt(100);
+            StringBuilder text = new StringBuilder("hello");
+            expected.putIfAbsent(author, new HashSet<String>());
+            for (int m = random.nextInt(4); m > 0; m--) {
+                String mentioned = "User" + random.nextInt(300);
+                text.append(" @").append(mentioned);
+                expected.putIfAbsent(mentioned.toLowerCase(), new HashSet<String>());
+                if (!mentioned.equalsIgnoreCase(author)) {
+                    expected.get(author).add(mentioned.toLowerCase());
+                }
+            }
+            tweets.add(new Tweet(i, author, text.toString(), d1));
+        }
+        FollowsGraph graph = FollowsGraph.fromTweets(tweets);
+
+        assertEquals(expected, graph.asMap());
+        assertEquals(graph.asMap(), expected);
+        assertEquals(expected.hashCode(), graph.asMap().hashCode());
+    }
+}
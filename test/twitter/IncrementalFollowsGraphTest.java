@@ -0,0 +1,90 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IncrementalFollowsGraphTest {
+
+    /*
+     * Testing strategy for IncrementalFollowsGraph:
+     * - batches: none, empty, one tweet, many batches of random sizes
+     * - adding: addTweets, addTweet one at a time
+     * - edges: new, repeated within and across batches, self-follows, names
+     *   in different case in different batches
+     * - influencers: k = 0, k < users, k > users, after counts change order
+     * - results must equal a graph rebuilt from the whole history
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        graph.addTweets(Collections.<Tweet>emptyList());
+
+        assertEquals(0, graph.userCount());
+        assertTrue(graph.influencers(10).isEmpty());
+        assertTrue(graph.snapshot().asMap().isEmpty());
+    }
+
+    @Test
+    public void testRankingFollowsUpdates() {
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        graph.addTweets(Arrays.asList(new Tweet(1, "alyssa", "@bert @ALYSSA", d1)));
+
+        assertEquals(Arrays.asList("bert", "alyssa"), graph.influencers(5));
+        assertEquals(1, graph.followerCount("BERT"));
+        assertTrue(graph.follows("Alyssa", "bert"));
+        assertFalse("expected no self-follows", graph.follows("alyssa", "alyssa"));
+
+        graph.addTweets(Arrays.asList(new Tweet(2, "bert", "@alyssa", d1),
+                new Tweet(3, "ernie", "@Alyssa @alyssa", d1)));
+
+        assertEquals(Arrays.asList("alyssa", "bert"), graph.influencers(2));
+        assertEquals(2, graph.followerCount("alyssa"));
+        assertEquals(3, graph.edgeCount());
+        assertEquals(3, graph.tweetCount());
+    }
+
+    @Test
+    public void testMatchesRebuild() {
+        Random random = new Random(6005);
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        List<Tweet> history = new ArrayList<>();
+        for (int batch = 0; batch < 30; batch++) {
+            List<Tweet> tweets = new ArrayList<>();
+            for (int i = random.nextInt(200); i > 0; i--) {
+                String author = (random.nextBoolean() ? "user" : "USER") + random.nextInt(300);
+                String text = "@User" + random.nextInt(30) + " @user" + random.nextInt(300);
+                tweets.add(new Tweet(history.size() + tweets.size(), author, text, d1));
+            }
+            if (batch % 2 == 0) {
+                graph.addTweets(tweets);
+            } else {
+                tweets.forEach(graph::addTweet);
+            }
+            history.addAll(tweets);
+
+            FollowsGraph rebuilt = FollowsGraph.fromTweets(history);
+            assertEquals(rebuilt.asMap(), graph.snapshot().asMap());
+            assertEquals(rebuilt.influencers(rebuilt.userCount()), graph.influencers(Integer.MAX_VALUE));
+            assertEquals(rebuilt.influencers(7), graph.influencers(7));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class KeywordMatcherTest {
+
+    /*
+     * Testing strategy for KeywordMatcher:
+     * - keywords: none, one, thousands, duplicates ignoring case, prefixes of
+     *   one another, invalid (empty, containing a space)
+     * - text: empty, only spaces, keyword at start/middle/end, keyword as a
+     *   prefix or suffix of a longer word, different case, tabs and newlines
+     * - forEachMatch: reports least keyword index, in text order
+     * - containing: agrees with a whole-word reference, keeps input order
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testNoKeywords() {
+        KeywordMatcher matcher = new KeywordMatcher(Collections.<String>emptyList());
+
+        assertFalse(matcher.matches("rivest talk"));
+        assertFalse(matcher.matches(""));
+    }
+
+    @Test
+    public void testWholeWords() {
+        KeywordMatcher matcher = new KeywordMatcher(Arrays.asList("talk", "ta", "Rivest", "", "two words"));
+
+        assertTrue(matcher.matches("TALK"));
+        assertTrue(matcher.matches("a\ttalk\n"));
+        assertTrue(matcher.matches("rivest?? no, RIVEST"));
+        assertFalse("expected no match inside a longer word", matcher.matches("talked about rivest?"));
+        assertFalse("expected no match inside a longer word", matcher.matches("tal stalk"));
+        assertFalse("expected invalid keywords never to match", matcher.matches("two words"));
+        assertFalse(matcher.matches("   "));
+        assertEquals(5, matcher.keywordCount());
+    }
+
+    @Test
+    public void testForEachMatch() {
+        KeywordMatcher matcher = new KeywordMatcher(Arrays.asList("talk", "hype", "TALK", "ta"));
+        List<Integer> found = new ArrayList<>();
+
+        matcher.forEachMatch("Talk ta talk #hype hype", found::add);
+
+        assertEquals(Arrays.asList(0, 3, 0, 1), found);
+    }
+
+    @Test
+    public void testManyKeywordsMatchReference() {
+        Random random = new Random(6005);
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            keywords.add("Term" + random.nextInt(20_000));
+        }
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String text = "rivest term" + random.nextInt(20_000) + " talk TERM" + random.nextInt(20_000) + "x";
+            tweets.add(new Tweet(i, "alyssa", text, d1));
+        }
+
+        List<Tweet> expected = new ArrayList<>();
+        for (Tweet tweet : tweets) {
+            boolean found = false;
+            for (String word : tweet.getText().split("\\s+")) {
+                for (String keyword : keywords) {
+                    found |= word.equalsIgnoreCase(keyword);
+                }
+            }
+            if (found) {
+                expected.add(tweet);
+            }
+        }
+        assertFalse("expected some matches", expected.isEmpty());
+        assertEquals(expected, new KeywordMatcher(keywords).containing(tweets));
+        assertEquals(expected, Filter.containing(tweets, keywords));
+    }
+}
@@ -0,0 +1,89 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class LocalTweetServerTest {
+
+    /*
+     * Testing strategy for LocalTweetServer:
+     * - requests: first, successive (consecutive batches of the corpus)
+     * - clients: TweetReader (the sample server's format), one at a time,
+     *   more at once than HANDLER_THREADS
+     * - method: GET, other
+     */
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testSuccessiveBatches() throws IOException {
+        TweetCorpusGenerator generator = new TweetCorpusGenerator(9);
+        Iterator<Tweet> expected = generator.iterator(250);
+        try (LocalTweetServer server = LocalTweetServer.start(generator, 125)) {
+            for (int batch = 0; batch < 2; batch++) {
+                List<Tweet> tweets = TweetReader.readTweetsFromWeb(server.uri().toURL());
+
+                assertEquals("expected a full batch", 125, tweets.size());
+                for (Tweet tweet : tweets) {
+                    Tweet next = expected.next();
+                    assertEquals("expected the next tweet of the corpus", next.getId(), tweet.getId());
+                    assertEquals(next.getAuthor(), tweet.getAuthor());
+                    assertEquals(next.getText(), tweet.getText());
+                    assertEquals(next.getTimestamp(), tweet.getTimestamp());
+                }
+            }
+            assertEquals(2, server.requestCount());
+        }
+    }
+
+    @Test
+    public void testMoreClientsThanHandlers() throws Exception {
+        int clients = 3 * LocalTweetServer.HANDLER_THREADS;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try (LocalTweetServer server = LocalTweetServer.start(new TweetCorpusGenerator(9), 50)) {
+            List<Future<List<Tweet>>> batches = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                batches.add(pool.submit(() -> TweetReader.readTweetsFromWeb(server.uri().toURL())));
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Future<List<Tweet>> batch : batches) {
+                for (Tweet tweet : batch.get()) {
+                    assertTrue("expected each tweet served once", ids.add(tweet.getId()));
+                }
+            }
+            assertEquals("expected every client served a full batch", clients * 50, ids.size());
+            assertEquals(clients, server.requestCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testOnlyGet() throws IOException {
+        try (LocalTweetServer server = LocalTweetServer.start(new TweetCorpusGenerator(9), 10)) {
+            HttpURLConnection connection = (HttpURLConnection) server.uri().toURL().openConnection();
+            connection.setRequestMethod("DELETE");
+
+            assertEquals(405, connection.getResponseCode());
+            assertEquals("expected no batch served", 0, server.requestCount());
+        }
+    }
+}
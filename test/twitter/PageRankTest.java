@@ -0,0 +1,145 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class PageRankTest {
+
+    /*
+     * Testing strategy for PageRank:
+     * - graph: empty, one user, star, random graph large enough to split
+     *   into many tasks, users that follow nobody
+     * - parameters: defaults, maxIterations 0, invalid values
+     * - pool parallelism: 1, several (results must be identical)
+     * - scores agree with a straightforward sequential power iteration and
+     *   sum to 1; influencers(k) is a prefix of the full ranking
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        PageRank ranks = PageRank.of(FollowsGraph.fromTweets(Collections.<Tweet>emptyList()));
+
+        assertTrue(ranks.influencers(10).isEmpty());
+        assertTrue(ranks.converged());
+        assertEquals(0, ranks.score("alyssa"), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDamping() {
+        PageRank.of(FollowsGraph.fromTweets(Collections.<Tweet>emptyList()), 1.0, 0, 10, ForkJoinPool.commonPool());
+    }
+
+    @Test
+    public void testStar() {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        for (String fan : Arrays.asList("alyssa", "bbitdiddle", "bert", "ernie")) {
+            followsGraph.put(fan, new HashSet<>(Arrays.asList("Rivest")));
+        }
+        followsGraph.put("alyssa", new HashSet<>(Arrays.asList("rivest", "bert")));
+
+        List<String> influencers = PageRank.influencers(followsGraph);
+
+        assertEquals(Arrays.asList("rivest", "bert", "alyssa", "bbitdiddle", "ernie"), influencers);
+    }
+
+    @Test
+    public void testMaxIterationsZero() {
+        FollowsGraph graph = FollowsGraph.fromTweets(Arrays.asList(new Tweet(1, "alyssa", "@bert", d1)));
+        PageRank ranks = PageRank.of(graph, 0.85, 0, 0, ForkJoinPool.commonPool());
+
+        assertEquals(0, ranks.iterations());
+        assertFalse(ranks.converged());
+        assertArrayEquals(new double[] { 0.5, 0.5 }, ranks.scores(), 0);
+    }
+
+    @Test
+    public void testMatchesReference() {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            String text = random.nextInt(4) == 0 ? "no mentions"
+                    : "@user" + random.nextInt(100) + " @user" + random.nextInt(20_000);
+            tweets.add(new Tweet(i, "user" + random.nextInt(20_000), text, d1));
+        }
+        FollowsGraph graph = FollowsGraph.fromTweets(tweets);
+        double[] expected = reference(graph, 0.85, 1e-12);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            PageRank ranks = PageRank.of(graph, 0.85, 1e-12, 200, single);
+            PageRank parallel = PageRank.of(graph, 0.85, 1e-12, 200, several);
+
+            assertTrue(ranks.converged());
+            assertArrayEquals(expected, ranks.scores(), 1e-9);
+            assertArrayEquals(ranks.scores(), parallel.scores(), 0);
+            double sum = 0;
+            for (double score : ranks.scores()) {
+                sum += score;
+            }
+            assertEquals(1.0, sum, 1e-9);
+
+            List<String> all = ranks.influencers(graph.userCount());
+            assertEquals(all.subList(0, 50), ranks.influencers(50));
+            assertTrue(ranks.score(all.get(0)) >= ranks.score(all.get(1)));
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    /*
+     * Push-style power iteration, one user at a time.
+     */
+    private static double[] reference(FollowsGraph graph, double damping, double tolerance) {
+        int n = graph.userCount();
+        double[] rank = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        for (int iteration = 0; iteration < 1000; iteration++) {
+            double[] next = new double[n];
+            double dangling = 0;
+            for (int k = 0; k < n; k++) {
+                int[] following = graph.following(k);
+                if (following.length == 0) {
+                    dangling += rank[k];
+                }
+                for (int followee : following) {
+                    next[followee] += damping * rank[k] / following.length;
+                }
+            }
+            double change = 0;
+            for (int k = 0; k < n; k++) {
+                next[k] += (1 - damping) / n + damping * dangling / n;
+                change += Math.abs(next[k] - rank[k]);
+            }
+            rank = next;
+            if (change < tolerance) {
+                break;
+            }
+        }
+        return rank;
+    }
+}
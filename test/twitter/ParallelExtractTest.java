@@ -0,0 +1,81 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class ParallelExtractTest {
+
+    /*
+     * Testing strategy for ParallelExtract:
+     * - list size: 0, below SEQUENTIAL_THRESHOLD, many times above it
+     * - list type: random access, linked
+     * - extreme timestamps: at the start, middle and end of the list
+     * - results must equal those of Extract
+     */
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetTimespanEmpty() {
+        ParallelExtract.getTimespan(Collections.<Tweet>emptyList());
+    }
+
+    @Test
+    public void testSmallListMatchesExtract() {
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "alyssa", "talk to @Bert", Instant.parse("2016-02-17T11:00:00Z")),
+                new Tweet(2, "bbitdiddle", "@bert and @ernie", Instant.parse("2016-02-17T10:00:00Z")));
+
+        assertEquals(Extract.getTimespan(tweets), ParallelExtract.getTimespan(tweets));
+        assertEquals(Extract.getMentionedUsers(tweets), ParallelExtract.getMentionedUsers(tweets));
+    }
+
+    @Test
+    public void testLargeListMatchesExtract() {
+        List<Tweet> tweets = corpus(20 * ParallelExtract.SEQUENTIAL_THRESHOLD + 17);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (List<Tweet> list : Arrays.asList(tweets, new LinkedList<>(tweets))) {
+                Timespan span = ParallelExtract.getTimespan(list, pool);
+                assertEquals("expected earliest tweet", Instant.ofEpochSecond(1_000), span.getStart());
+                assertEquals("expected latest tweet", Instant.ofEpochSecond(9_000_000), span.getEnd());
+                assertEquals(Extract.getTimespan(tweets), span);
+                assertEquals(Extract.getMentionedUsers(tweets), ParallelExtract.getMentionedUsers(list, pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<Tweet> corpus(int size) {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long seconds = 2_000 + random.nextInt(8_000_000);
+            if (i == size / 2) {
+                seconds = 1_000;
+            } else if (i == size - 1) {
+                seconds = 9_000_000;
+            }
+            String text = "hi @User" + random.nextInt(5_000) + " and @user" + random.nextInt(5_000);
+            tweets.add(new Tweet(i, "author" + (i % 100), text, Instant.ofEpochSecond(seconds)));
+        }
+        return tweets;
+    }
+}
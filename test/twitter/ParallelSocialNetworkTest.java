@@ -0,0 +1,79 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class ParallelSocialNetworkTest {
+
+    /*
+     * Testing strategy for ParallelSocialNetwork:
+     * - list size: 0, below SEQUENTIAL_THRESHOLD, many times above it
+     * - list type: random access, linked
+     * - pool parallelism: 1, several
+     * - edges repeated within and across leaves, self-follows, names in
+     *   different case in different leaves
+     * - results must equal FollowsGraph.fromTweets, including user ids
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(ParallelSocialNetwork.guessFollowsGraph(Collections.<Tweet>emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testSmallList() {
+        List<Tweet> tweets = Arrays.asList(new Tweet(1, "alyssa", "@bbitdiddle @ALYSSA", d1));
+
+        assertEquals(SocialNetwork.guessFollowsGraph(tweets), ParallelSocialNetwork.guessFollowsGraph(tweets));
+    }
+
+    @Test
+    public void testLargeListMatchesSequential() {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < 20 * ParallelSocialNetwork.SEQUENTIAL_THRESHOLD; i++) {
+            String author = (random.nextBoolean() ? "User" : "uSER") + random.nextInt(2_000);
+            String text = "@user" + random.nextInt(50) + " and @USER" + random.nextInt(5_000) + " or " + author;
+            tweets.add(new Tweet(i, author, text, d1));
+        }
+        FollowsGraph expected = FollowsGraph.fromTweets(tweets);
+
+        for (int parallelism : new int[] { 1, 4 }) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                for (List<Tweet> list : Arrays.asList(tweets, new LinkedList<>(tweets))) {
+                    FollowsGraph graph = ParallelSocialNetwork.buildFollowsGraph(list, pool);
+
+                    assertEquals(expected.userCount(), graph.userCount());
+                    assertEquals(expected.edgeCount(), graph.edgeCount());
+                    for (int id = 0; id < graph.userCount(); id++) {
+                        assertEquals("expected same ids", expected.name(id), graph.name(id));
+                        assertArrayEquals(expected.following(id), graph.following(id));
+                    }
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
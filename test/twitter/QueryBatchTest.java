@@ -0,0 +1,103 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class QueryBatchTest {
+
+    /*
+     * Testing strategy for QueryBatch:
+     * - batch: empty, one query, hundreds of queries
+     * - routing: by author, by keyword, by scan (timespan only, all()),
+     *   unsatisfiable queries, duplicate queries, queries sharing keywords,
+     *   one tweet matching several keywords of one query
+     * - results agree with running each query alone and keep input order
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d2);
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        QueryBatch batch = new QueryBatch(Collections.<TweetQuery>emptyList());
+
+        assertEquals(0, batch.size());
+        assertTrue(batch.filter(Arrays.asList(tweet1, tweet2)).isEmpty());
+    }
+
+    @Test
+    public void testEachRouting() {
+        List<TweetQuery> queries = Arrays.asList(
+                TweetQuery.all().writtenBy("Alyssa"),
+                TweetQuery.all().containing(Arrays.asList("talk", "RIVEST")),
+                TweetQuery.all().containing(Arrays.asList("#hype")).inTimespan(new Timespan(d1, d1)),
+                TweetQuery.all().inTimespan(new Timespan(d2, d2)),
+                TweetQuery.all(),
+                TweetQuery.all().writtenBy("alyssa").writtenBy("bbitdiddle"),
+                TweetQuery.all().containing(Collections.<String>emptyList()));
+
+        List<List<Tweet>> results = new QueryBatch(queries).filter(Arrays.asList(tweet1, tweet2));
+
+        assertEquals(Arrays.asList(
+                Arrays.asList(tweet1),
+                Arrays.asList(tweet1, tweet2),
+                Collections.emptyList(),
+                Arrays.asList(tweet2),
+                Arrays.asList(tweet1, tweet2),
+                Collections.emptyList(),
+                Collections.emptyList()), results);
+    }
+
+    @Test
+    public void testAgreesWithSingleQueries() {
+        Random random = new Random(6005);
+        String[] words = { "rivest", "talk", "hype", "obama", "mit", "6.005" };
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            String text = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            tweets.add(new Tweet(i, "user" + random.nextInt(40), text, d1.plusSeconds(random.nextInt(10_000))));
+        }
+        List<TweetQuery> queries = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            TweetQuery query = TweetQuery.all();
+            if (random.nextBoolean()) {
+                query = query.writtenBy("USER" + random.nextInt(50));
+            }
+            if (random.nextBoolean()) {
+                Instant start = d1.plusSeconds(random.nextInt(10_000));
+                query = query.inTimespan(new Timespan(start, start.plusSeconds(random.nextInt(5_000))));
+            }
+            if (random.nextBoolean()) {
+                query = query.containing(Arrays.asList(words[random.nextInt(words.length)],
+                        words[random.nextInt(words.length)].toUpperCase()));
+            }
+            queries.add(query);
+        }
+
+        List<List<Tweet>> results = new QueryBatch(queries).filter(tweets);
+
+        assertEquals(queries.size(), results.size());
+        for (int i = 0; i < queries.size(); i++) {
+            assertEquals(queries.get(i).toString(), queries.get(i).filter(tweets), results.get(i));
+        }
+    }
+}
@@ -5,8 +5,11 @@ package twitter;
 
 import static org.junit.Assert.*;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -16,11 +19,23 @@ import org.junit.Test;
 public class SocialNetworkTest {
 
     /*
-     * TODO: your testing strategies for these methods should go here.
-     * See the ic03-testing exercise for examples of what a testing strategy comment looks like.
-     * Make sure you have partitions.
+     * Testing strategy for guessFollowsGraph():
+     * - tweets: none, one, several by the same author
+     * - mentions per tweet: none, one, several, repeated, of the author
+     *   themselves, in different case from the author's name
+     * - mention-like text that is not a mention (email address)
+     *
+     * Testing strategy for influencers():
+     * - graph: empty, one user, users only appearing as followees,
+     *   users following nobody, usernames in different case
+     * - follower counts: all equal, all different
+     *
+     * Usernames may come back in any case, so results are compared after
+     * converting to lowercase.
      */
     
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
     @Test(expected=AssertionError.class)
     public void testAssertionsEnabled() {
         assert false; // make sure assertions are enabled with VM argument: -ea
@@ -33,6 +48,31 @@ public class SocialNetworkTest {
         assertTrue("expected empty graph", followsGraph.isEmpty());
     }
     
+    @Test
+    public void testGuessFollowsGraphNoMentions() {
+        Tweet tweet = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+        Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(Arrays.asList(tweet));
+
+        for (String username : followsGraph.keySet()) {
+            assertTrue("expected only the author", username.equalsIgnoreCase("alyssa"));
+            assertTrue("expected no follows", followsGraph.get(username).isEmpty());
+        }
+    }
+
+    @Test
+    public void testGuessFollowsGraphMentions() {
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "alyssa", "@bbitdiddle and @Ernie-6 talk about @BBITDIDDLE", d1),
+                new Tweet(2, "Alyssa", "@alyssa mail me at alyssa@mit.edu", d1),
+                new Tweet(3, "bbitdiddle", "thanks @ALYSSA", d1));
+        Map<String, Set<String>> followsGraph = lowercase(SocialNetwork.guessFollowsGraph(tweets));
+
+        assertEquals(new HashSet<>(Arrays.asList("bbitdiddle", "ernie-6")), followsGraph.get("alyssa"));
+        assertEquals(new HashSet<>(Arrays.asList("alyssa")), followsGraph.get("bbitdiddle"));
+        Set<String> ernie = followsGraph.get("ernie-6");
+        assertTrue("expected ernie-6 to follow nobody", ernie == null || ernie.isEmpty());
+    }
+
     @Test
     public void testInfluencersEmpty() {
         Map<String, Set<String>> followsGraph = new HashMap<>();
@@ -41,6 +81,37 @@ public class SocialNetworkTest {
         assertTrue("expected empty list", influencers.isEmpty());
     }
 
+    @Test
+    public void testInfluencersDescendingFollowers() {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        followsGraph.put("alyssa", new HashSet<>(Arrays.asList("bbitdiddle", "Ernie")));
+        followsGraph.put("BBitDiddle", new HashSet<>(Arrays.asList("ernie")));
+        followsGraph.put("bert", new HashSet<String>());
+        List<String> influencers = SocialNetwork.influencers(followsGraph);
+
+        assertEquals(4, influencers.size());
+        assertEquals("ernie", influencers.get(0).toLowerCase());
+        assertEquals("bbitdiddle", influencers.get(1).toLowerCase());
+        assertEquals(new HashSet<>(Arrays.asList("alyssa", "bert")),
+                new HashSet<>(Arrays.asList(influencers.get(2).toLowerCase(), influencers.get(3).toLowerCase())));
+    }
+
+    /*
+     * @return followsGraph with every username converted to lowercase, asserting
+     *         no username appears twice in different case
+     */
+    private static Map<String, Set<String>> lowercase(Map<String, Set<String>> followsGraph) {
+        Map<String, Set<String>> result = new HashMap<>();
+        for (Map.Entry<String, Set<String>> entry : followsGraph.entrySet()) {
+            Set<String> follows = new HashSet<>();
+            for (String username : entry.getValue()) {
+                assertTrue("expected distinct usernames", follows.add(username.toLowerCase()));
+            }
+            assertNull("expected distinct usernames", result.put(entry.getKey().toLowerCase(), follows));
+        }
+        return result;
+    }
+
     /*
      * Warning: all the tests you write here must be runnable against any
      * SocialNetwork class that follows the spec. It will be run against several
@@ -0,0 +1,68 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TimeIndexTest {
+
+    /*
+     * Testing strategy for TimeIndex:
+     * - corpus: empty, tweets in time order, shuffled, many equal timestamps
+     * - timespan: before all tweets, after all, covering all, a single instant,
+     *   endpoints exactly on tweet timestamps, endpoints differing only in nanos
+     * - results must equal Filter.inTimespan, including order
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyCorpus() {
+        TimeIndex index = new TimeIndex(Collections.<Tweet>emptyList());
+
+        assertTrue("expected no tweets", index.inTimespan(new Timespan(d1, d1)).isEmpty());
+        assertEquals(0, index.count(new Timespan(d1, d1)));
+    }
+
+    @Test
+    public void testMatchesFilterInTimespan() {
+        Random random = new Random(6005);
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            Instant timestamp = d1.plusSeconds(random.nextInt(600)).plusNanos(random.nextInt(3) * 500_000_000L);
+            tweets.add(new Tweet(i, "user" + (i % 10), "tweet " + i, timestamp));
+        }
+        TimeIndex index = new TimeIndex(tweets);
+
+        List<Timespan> timespans = new ArrayList<>();
+        timespans.add(new Timespan(d1.minusSeconds(10), d1.minusSeconds(1)));
+        timespans.add(new Timespan(d1.plusSeconds(1000), d1.plusSeconds(2000)));
+        timespans.add(new Timespan(d1.minusSeconds(1), d1.plusSeconds(1000)));
+        timespans.add(new Timespan(d1.plusSeconds(42), d1.plusSeconds(42)));
+        timespans.add(new Timespan(d1.plusSeconds(42).plusNanos(1), d1.plusSeconds(43).minusNanos(1)));
+        for (int i = 0; i < 200; i++) {
+            Instant start = d1.plusSeconds(random.nextInt(620) - 10);
+            timespans.add(new Timespan(start, start.plusSeconds(random.nextInt(120)).plusNanos(500_000_000)));
+        }
+
+        for (Timespan timespan : timespans) {
+            List<Tweet> expected = Filter.inTimespan(tweets, timespan);
+            assertEquals(timespan.toString(), expected, index.inTimespan(timespan));
+            assertEquals(timespan.toString(), expected.size(), index.count(timespan));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class TweetAnalysisTest {
+
+    /*
+     * Testing strategy for TweetAnalysis:
+     * - tweets: none, one, thousands from TweetCorpusGenerator (out of order,
+     *   mixed case, emails)
+     * - mentions: none, self-mentions (mentioned but not followed), repeated
+     *   in different case
+     * - results agree with Extract, FollowsGraph.fromTweets and
+     *   SocialNetwork.guessFollowsGraph / influencers on the same tweets
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testNoTweets() {
+        TweetAnalysis analysis = TweetAnalysis.of(Collections.emptyList());
+
+        assertEquals(0, analysis.tweetCount());
+        assertNull("expected no timespan", analysis.timespan());
+        assertTrue(analysis.mentionedUsers().isEmpty());
+        assertEquals(0, analysis.graph().userCount());
+        assertEquals(Collections.emptyList(), analysis.influencers(10));
+    }
+
+    @Test
+    public void testSelfMentionIsMentionedButNotFollowed() {
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "Alyssa", "note to @alyssa: ask @BBitdiddle", d2),
+                new Tweet(2, "bbitdiddle", "@ALYSSA and bitdiddle@mit.edu", d1));
+        TweetAnalysis analysis = TweetAnalysis.of(tweets);
+
+        assertEquals(2, analysis.tweetCount());
+        assertEquals(new Timespan(d1, d2), analysis.timespan());
+        assertEquals(new HashSet<>(Arrays.asList("alyssa", "bbitdiddle")), analysis.mentionedUsers());
+        assertEquals(1, analysis.followerCount("BBITDIDDLE"));
+        assertEquals(1, analysis.followerCount("alyssa"));
+        assertEquals(0, analysis.followerCount("mit"));
+        assertEquals(Arrays.asList("alyssa", "bbitdiddle"), analysis.influencers(2));
+    }
+
+    @Test
+    public void testAgreesWithSeparatePasses() {
+        List<Tweet> tweets = new TweetCorpusGenerator(21).withUsers(300, 1.1)
+                .withTimestamps(d1, Duration.ofSeconds(5), Duration.ofMinutes(2))
+                .tweets(5000).collect(Collectors.toList());
+        TweetAnalysis analysis = TweetAnalysis.of(tweets);
+
+        assertEquals(Extract.getTimespan(tweets), analysis.timespan());
+        assertEquals(lowercase(Extract.getMentionedUsers(tweets)), analysis.mentionedUsers());
+
+        FollowsGraph expected = FollowsGraph.fromTweets(tweets);
+        assertEquals(expected.userCount(), analysis.graph().userCount());
+        assertEquals(expected.edgeCount(), analysis.graph().edgeCount());
+        for (int id = 0; id < expected.userCount(); id++) {
+            assertEquals("expected same ids", expected.name(id), analysis.graph().name(id));
+            assertArrayEquals(expected.following(id), analysis.graph().following(id));
+        }
+        assertArrayEquals(expected.followerCounts(), analysis.followerCounts());
+
+        Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
+        assertEquals(followsGraph, analysis.graph().asMap());
+        assertEquals(SocialNetwork.influencers(followsGraph, 20), analysis.influencers(20));
+    }
+
+    @Test
+    public void testFollowerCountsAreCopies() {
+        TweetAnalysis analysis = TweetAnalysis.of(Arrays.asList(new Tweet(1, "a", "@b", d1)));
+        int[] counts = analysis.followerCounts();
+        counts[analysis.graph().id("b")] = 99;
+
+        assertEquals(1, analysis.followerCount("b"));
+    }
+
+    private static Set<String> lowercase(Set<String> usernames) {
+        return usernames.stream().map(String::toLowerCase).collect(Collectors.toSet());
+    }
+}
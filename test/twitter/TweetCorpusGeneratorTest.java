@@ -0,0 +1,234 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class TweetCorpusGeneratorTest {
+
+    /*
+     * Testing strategy for TweetCorpusGenerator:
+     * - count: 0, 1, many
+     * - seed: same, different
+     * - users: 1, many; zipfExponent: 0, > 0
+     * - jitter: zero (timestamps nondecreasing), nonzero
+     * - output: iterator, stream, JSON array read by TweetExtractor and
+     *   TweetReader, NDJSON read by TweetFileReader
+     * - text: length limit, mentions found by Extract, emails not mentions,
+     *   more mentions than fit (dropped), mentionsPerTweet too large
+     * - keyword: rate 0, between 0 and 1, 1; found by Filter.containing
+     */
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyCorpus() {
+        Iterator<Tweet> tweets = new TweetCorpusGenerator(1).iterator(0);
+
+        assertFalse("expected no tweets", tweets.hasNext());
+        try {
+            tweets.next();
+            fail("expected NoSuchElementException");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSameSeedSameCorpus() {
+        List<Tweet> first = new TweetCorpusGenerator(42).tweets(2000).collect(Collectors.toList());
+        List<Tweet> second = new TweetCorpusGenerator(42).tweets(2000).collect(Collectors.toList());
+        List<Tweet> other = new TweetCorpusGenerator(43).tweets(2000).collect(Collectors.toList());
+
+        assertEquals(2000, first.size());
+        assertSameTweets(first, second);
+        assertFalse("expected a different corpus", texts(first).equals(texts(other)));
+    }
+
+    @Test
+    public void testIdsTimestampsAndTextLength() {
+        List<Tweet> tweets = new TweetCorpusGenerator(7)
+                .withTimestamps(Instant.parse("2020-01-01T00:00:00Z"), Duration.ofMinutes(1), Duration.ZERO)
+                .tweets(5000).collect(Collectors.toList());
+
+        for (int i = 0; i < tweets.size(); i++) {
+            Tweet tweet = tweets.get(i);
+            assertEquals("expected sequential ids", i + 1, tweet.getId());
+            assertTrue("expected at most 140 chars", tweet.getText().length() <= 140);
+            assertEquals("expected whole seconds", 0, tweet.getTimestamp().getNano());
+            if (i > 0) {
+                assertFalse("expected nondecreasing timestamps without jitter",
+                        tweet.getTimestamp().isBefore(tweets.get(i - 1).getTimestamp()));
+            }
+        }
+        assertEquals(Instant.parse("2020-01-01T00:00:00Z"), tweets.get(0).getTimestamp());
+        long span = Duration.between(tweets.get(0).getTimestamp(), tweets.get(4999).getTimestamp()).toMinutes();
+        assertTrue("expected about 5000 minutes, got " + span, span > 4500 && span < 5500);
+    }
+
+    @Test
+    public void testJitterReordersTimestamps() {
+        List<Tweet> tweets = new TweetCorpusGenerator(7)
+                .withTimestamps(Instant.parse("2020-01-01T00:00:00Z"), Duration.ofSeconds(1), Duration.ofMinutes(1))
+                .tweets(1000).collect(Collectors.toList());
+
+        boolean outOfOrder = false;
+        for (int i = 1; i < tweets.size(); i++) {
+            outOfOrder |= tweets.get(i).getTimestamp().isBefore(tweets.get(i - 1).getTimestamp());
+        }
+        assertTrue("expected some tweets out of order", outOfOrder);
+    }
+
+    @Test
+    public void testZipfAuthors() {
+        Map<String, Integer> skewed = authorCounts(new TweetCorpusGenerator(3).withUsers(1000, 1.2));
+        Map<String, Integer> uniform = authorCounts(new TweetCorpusGenerator(3).withUsers(1000, 0));
+        Map<String, Integer> single = authorCounts(new TweetCorpusGenerator(3).withUsers(1, 1.0));
+
+        String top = TweetCorpusGenerator.username(0);
+        assertTrue("expected the top-ranked user to dominate",
+                skewed.get(top) > 10 * skewed.get(TweetCorpusGenerator.username(99)));
+        assertTrue("expected about 20 tweets each, got " + uniform.get(top), uniform.get(top) < 60);
+        assertEquals("expected one author", 1, single.size());
+    }
+
+    @Test
+    public void testMentionsAndEmails() {
+        List<Tweet> tweets = new TweetCorpusGenerator(5).withUsers(500, 1.0).withText(2, 1)
+                .tweets(500).collect(Collectors.toList());
+
+        int hyphenated = 0;
+        for (Tweet tweet : tweets) {
+            assertTrue("expected an email in " + tweet.getText(), tweet.getText().matches(".*\\w@[a-z.]+\\.(edu|com).*"));
+            Set<String> mentioned = new HashSet<>();
+            for (String token : tweet.getText().split(" ")) {
+                if (token.startsWith("@")) {
+                    mentioned.add(token.substring(1).toLowerCase());
+                }
+            }
+            assertEquals("expected every @-mention and no email in " + tweet.getText(), mentioned,
+                    lowercase(Extract.getMentionedUsers(Arrays.asList(tweet))));
+            hyphenated += tweet.getText().contains("-") ? 1 : 0;
+        }
+        assertTrue("expected hyphenated handles", hyphenated > 0);
+    }
+
+    @Test
+    public void testMoreMentionsThanFit() {
+        int most = TweetCorpusGenerator.MAX_TEXT_LENGTH / 2;
+        List<Tweet> tweets = new TweetCorpusGenerator(5).withText(most, 1).tweets(200).collect(Collectors.toList());
+
+        for (Tweet tweet : tweets) {
+            assertTrue("expected at most 140 chars", tweet.getText().length() <= TweetCorpusGenerator.MAX_TEXT_LENGTH);
+            assertTrue("expected mentions in " + tweet.getText(), tweet.getText().contains("@"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyMentions() {
+        new TweetCorpusGenerator(5).withText(TweetCorpusGenerator.MAX_TEXT_LENGTH / 2 + 1, 0);
+    }
+
+    @Test
+    public void testKeyword() {
+        TweetCorpusGenerator generator = new TweetCorpusGenerator(9).withText(3, 0.5);
+        List<Tweet> some = generator.withKeyword("rivest", 0.2).tweets(5000).collect(Collectors.toList());
+        List<Tweet> all = generator.withKeyword("rivest", 1).tweets(500).collect(Collectors.toList());
+        List<Tweet> none = generator.withKeyword("rivest", 0).tweets(500).collect(Collectors.toList());
+        List<String> keywords = Arrays.asList("rivest");
+
+        int hits = Filter.containing(some, keywords).size();
+        assertTrue("expected about 1000 hits, got " + hits, hits > 850 && hits < 1150);
+        assertEquals("expected every tweet", all, Filter.containing(all, keywords));
+        assertTrue("expected no tweet", Filter.containing(none, keywords).isEmpty());
+        for (Tweet tweet : all) {
+            assertTrue("expected at most 140 chars", tweet.getText().length() <= TweetCorpusGenerator.MAX_TEXT_LENGTH);
+        }
+        assertSameTweets(generator.tweets(500).collect(Collectors.toList()), none);
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws IOException {
+        TweetCorpusGenerator generator = new TweetCorpusGenerator(11).withUsers(50, 1.0);
+        List<Tweet> expected = generator.tweets(300).collect(Collectors.toList());
+
+        StringWriter json = new StringWriter();
+        TweetCorpusGenerator.writeJson(generator.iterator(300), json);
+        assertSameTweets(expected, TweetExtractor.readTweets(new StringReader(json.toString())));
+
+        Path file = Files.createTempFile("tweets", ".json");
+        try {
+            generator.writeJson(file, 300);
+            assertSameTweets(expected, TweetReader.readTweetsFromWeb(file.toUri().toURL()));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testNdjsonRoundTrip() throws IOException {
+        TweetCorpusGenerator generator = new TweetCorpusGenerator(13);
+        List<Tweet> expected = generator.tweets(3000).collect(Collectors.toList());
+
+        Path file = Files.createTempFile("tweets", ".ndjson");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            generator.writeNdjson(file, 3000);
+            assertEquals("expected one line per tweet", 3000, Files.readAllLines(file).size());
+            assertSameTweets(expected, TweetFileReader.readTweets(file, pool));
+        } finally {
+            pool.shutdown();
+            Files.delete(file);
+        }
+    }
+
+    private static Map<String, Integer> authorCounts(TweetCorpusGenerator generator) {
+        Map<String, Integer> counts = new HashMap<>();
+        generator.tweets(20_000).forEach(tweet -> counts.merge(tweet.getAuthor().toLowerCase(), 1, Integer::sum));
+        return counts;
+    }
+
+    private static Set<String> lowercase(Set<String> usernames) {
+        return usernames.stream().map(String::toLowerCase).collect(Collectors.toSet());
+    }
+
+    private static List<String> texts(List<Tweet> tweets) {
+        return tweets.stream().map(Tweet::getText).collect(Collectors.toList());
+    }
+
+    private static void assertSameTweets(List<Tweet> expected, List<Tweet> actual) {
+        assertEquals("expected same number of tweets", expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Tweet e = expected.get(i);
+            Tweet a = actual.get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getAuthor(), a.getAuthor());
+            assertEquals(e.getText(), a.getText());
+            assertEquals(e.getTimestamp(), a.getTimestamp());
+        }
+    }
+}
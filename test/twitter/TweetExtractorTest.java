@@ -0,0 +1,91 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.List;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonException;
+
+import org.junit.Test;
+
+public class TweetExtractorTest {
+
+    /*
+     * Testing strategy for TweetExtractor:
+     * - path: streaming readTweets, DOM fromJson; both must agree
+     * - screen name: nested user object, flat "user.screen_name" key, both
+     *   with the nested object lacking screen_name (before or after the flat key)
+     * - id: JSON number, JSON string
+     * - skipped values: nested objects and arrays, including a nested "text" key
+     */
+
+    private static final String TWEETS = "["
+            + "{\"retweeted_status\": {\"id\": 9, \"text\": \"not this one\", \"user\": {\"screen_name\": \"other\"}},"
+            + " \"id\": 1, \"user\": {\"screen_name\": \"alyssa\", \"entities\": {\"urls\": []}},"
+            + " \"text\": \"is it reasonable to talk about rivest so much?\","
+            + " \"created_at\": \"Wed Feb 17 10:00:00 +0000 2016\"},"
+            + "{\"id\": \"2\", \"user.screen_name\": \"bbitdiddle\", \"text\": \"rivest talk in 30 minutes #hype\","
+            + " \"created_at\": \"Wed Feb 17 11:00:00 +0000 2016\", \"coordinates\": [1.5, [2, 3]]}"
+            + "]";
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testReadTweetsSkipsNestedFields() {
+        List<Tweet> tweets = TweetExtractor.readTweets(new StringReader(TWEETS));
+
+        assertEquals("expected two tweets", 2, tweets.size());
+        assertEquals(1, tweets.get(0).getId());
+        assertEquals("alyssa", tweets.get(0).getAuthor());
+        assertEquals("is it reasonable to talk about rivest so much?", tweets.get(0).getText());
+        assertEquals(Instant.parse("2016-02-17T10:00:00Z"), tweets.get(0).getTimestamp());
+        assertEquals(2, tweets.get(1).getId());
+        assertEquals("bbitdiddle", tweets.get(1).getAuthor());
+    }
+
+    @Test
+    public void testFromJsonAgreesWithStreaming() {
+        List<Tweet> streamed = TweetExtractor.readTweets(new StringReader(TWEETS));
+        JsonArray array = Json.createReader(new StringReader(TWEETS)).readArray();
+
+        for (int i = 0; i < array.size(); i++) {
+            Tweet fromDom = TweetExtractor.fromJson(array.getJsonObject(i));
+            assertEquals("expected same id", streamed.get(i).getId(), fromDom.getId());
+            assertEquals("expected same author", streamed.get(i).getAuthor(), fromDom.getAuthor());
+            assertEquals("expected same text", streamed.get(i).getText(), fromDom.getText());
+            assertEquals("expected same timestamp", streamed.get(i).getTimestamp(), fromDom.getTimestamp());
+        }
+    }
+
+    @Test
+    public void testNestedUserWithoutScreenNameKeepsFlatKey() {
+        String tweets = "["
+                + "{\"id\": 1, \"user.screen_name\": \"alyssa\", \"user\": {\"id\": 7},"
+                + " \"text\": \"hi\", \"created_at\": \"Wed Feb 17 10:00:00 +0000 2016\"},"
+                + "{\"id\": 2, \"user\": {\"id\": 8}, \"user.screen_name\": \"bbitdiddle\","
+                + " \"text\": \"hi\", \"created_at\": \"Wed Feb 17 10:00:00 +0000 2016\"}"
+                + "]";
+        List<Tweet> streamed = TweetExtractor.readTweets(new StringReader(tweets));
+        JsonArray array = Json.createReader(new StringReader(tweets)).readArray();
+
+        assertEquals("alyssa", streamed.get(0).getAuthor());
+        assertEquals("bbitdiddle", streamed.get(1).getAuthor());
+        assertEquals("alyssa", TweetExtractor.fromJson(array.getJsonObject(0)).getAuthor());
+        assertEquals("bbitdiddle", TweetExtractor.fromJson(array.getJsonObject(1)).getAuthor());
+    }
+
+    @Test(expected = JsonException.class)
+    public void testFromJsonMissingField() {
+        TweetExtractor.fromJson(Json.createObjectBuilder().add("id", 3).add("text", "no author").build());
+    }
+}
@@ -0,0 +1,132 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.json.JsonException;
+
+import org.junit.Test;
+
+public class TweetFileReaderTest {
+
+    /*
+     * Testing strategy for TweetFileReader:
+     * - file: empty, one line, many lines
+     * - chunking: one chunk, many chunks (chunk size smaller than a line)
+     * - line endings: \n, \r\n, blank lines, no trailing newline
+     * - text: ASCII, multi-byte UTF-8
+     * - interning: none, per-chunk tables merged into the caller's, with
+     *   authors repeated across chunks in different case
+     * - malformed: not an object, a second value or garbage after the object
+     */
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        assertTrue("expected no tweets", read("", 0).isEmpty());
+    }
+
+    @Test
+    public void testManyChunksKeepFileOrder() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            lines.append(line(i));
+            lines.append(i % 7 == 0 ? "\r\n" : "\n");
+            if (i % 50 == 0) {
+                lines.append("\n");
+            }
+        }
+        lines.append(line(500));
+
+        for (long chunkBytes : new long[] { 0, 1, 100, 10_000 }) {
+            List<Tweet> tweets = read(lines.toString(), chunkBytes);
+
+            assertEquals("expected every line", 501, tweets.size());
+            for (int i = 0; i < tweets.size(); i++) {
+                assertEquals("expected file order", i, tweets.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    public void testFieldsAndUnicode() throws IOException {
+        List<Tweet> tweets = read(line(7) + "\n", 0);
+
+        assertEquals(1, tweets.size());
+        assertEquals("user7", tweets.get(0).getAuthor());
+        assertEquals("caf\u00e9 \u2603 #7", tweets.get(0).getText());
+        assertEquals(Instant.parse("2016-02-17T10:00:07Z"), tweets.get(0).getTimestamp());
+    }
+
+    @Test(expected = JsonException.class)
+    public void testMalformedLine() throws IOException {
+        read(line(1) + "\n[1, 2]\n", 0);
+    }
+
+    @Test(expected = JsonException.class)
+    public void testTwoObjectsOnOneLine() throws IOException {
+        read(line(1) + " " + line(2) + "\n", 0);
+    }
+
+    @Test(expected = JsonException.class)
+    public void testGarbageAfterObject() throws IOException {
+        read(line(1) + " garbage\n" + line(2) + "\n", 0);
+    }
+
+    @Test
+    public void testInternedAcrossChunks() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            lines.append(line(i).replace("\"user" + i + "\"", i % 2 == 0 ? "\"Alyssa\"" : "\"user" + (i % 7) + "\""))
+                    .append('\n');
+        }
+        for (long chunkBytes : new long[] { 0, 100 }) {
+            UsernameTable usernames = new UsernameTable();
+            List<Tweet> tweets = read(lines.toString(), chunkBytes, usernames);
+
+            assertEquals(300, tweets.size());
+            assertEquals("expected ids in order of first appearance", "alyssa", usernames.name(0));
+            assertEquals("expected alyssa and user0 .. user6", 8, usernames.size());
+            for (Tweet tweet : tweets) {
+                assertSame("expected the canonical instance", usernames.intern(tweet.getAuthor()), tweet.getAuthor());
+            }
+            assertEquals("expected same fields", "caf\u00e9 \u2603 #3", tweets.get(3).getText());
+        }
+    }
+
+    private static String line(int i) {
+        return "{\"id\": " + i + ", \"user\": {\"screen_name\": \"user" + i + "\"},"
+                + " \"text\": \"caf\u00e9 \u2603 #" + i + "\","
+                + " \"created_at\": \"Wed Feb 17 10:00:" + (i % 60 < 10 ? "0" : "") + (i % 60) + " +0000 2016\"}";
+    }
+
+    private static List<Tweet> read(String contents, long chunkBytes) throws IOException {
+        return read(contents, chunkBytes, null);
+    }
+
+    private static List<Tweet> read(String contents, long chunkBytes, UsernameTable usernames) throws IOException {
+        Path file = Files.createTempFile("tweets", ".ndjson");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+            return TweetFileReader.readTweets(file, pool, usernames, chunkBytes);
+        } finally {
+            pool.shutdown();
+            Files.delete(file);
+        }
+    }
+}
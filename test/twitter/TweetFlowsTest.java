@@ -0,0 +1,221 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class TweetFlowsTest {
+
+    /*
+     * Testing strategy for TweetFlows:
+     * - operators: writtenBy, inTimespan, containing, mentions, followsGraph,
+     *   alone and chained; results agree with Filter, Extract and
+     *   FollowsGraph.fromTweets on the same tweets
+     * - stream: empty, thousands of tweets
+     * - followsGraph: snapshotEvery divides the count or not
+     * - failures: upstream closes exceptionally, an operator throws
+     * - backpressure: slow consumer bounds how far publish() runs ahead
+     */
+
+    private static final long TIMEOUT_SECONDS = 30;
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testFiltersAgreeWithFilter() throws Exception {
+        List<Tweet> tweets = corpus(3000);
+        String author = tweets.get(0).getAuthor().toUpperCase();
+        Timespan middle = new Timespan(tweets.get(1000).getTimestamp(), tweets.get(2000).getTimestamp());
+        List<String> words = Arrays.asList("Crypto", "pset");
+
+        assertSameIds(Filter.writtenBy(tweets, author), run(tweets, TweetFlows.writtenBy(author)));
+        assertSameIds(Filter.inTimespan(tweets, middle), run(tweets, TweetFlows.inTimespan(middle)));
+        assertSameIds(Filter.containing(tweets, words), run(tweets, TweetFlows.containing(words)));
+    }
+
+    @Test
+    public void testChainedFilters() throws Exception {
+        List<Tweet> tweets = corpus(3000);
+        Timespan middle = new Timespan(tweets.get(500).getTimestamp(), tweets.get(2500).getTimestamp());
+        List<String> words = Arrays.asList("lol");
+
+        SubmissionPublisher<Tweet> source = new SubmissionPublisher<>();
+        TweetFlows.Stage<Tweet, Tweet> recent = TweetFlows.inTimespan(middle);
+        TweetFlows.Stage<Tweet, Tweet> matching = TweetFlows.containing(words);
+        source.subscribe(recent);
+        recent.subscribe(matching);
+        List<Tweet> result = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<Void> done = matching.consume(result::add);
+        TweetFlows.publish(tweets.iterator(), source);
+        done.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertSameIds(Filter.containing(Filter.inTimespan(tweets, middle), words), result);
+    }
+
+    @Test
+    public void testMentionsAgreeWithExtract() throws Exception {
+        List<Tweet> tweets = corpus(3000);
+        List<String> mentions = run(tweets, TweetFlows.mentions());
+
+        Set<String> expected = Extract.getMentionedUsers(tweets).stream().map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        assertEquals("expected each user once", expected.size(), mentions.size());
+        assertEquals(expected, mentions.stream().collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void testFollowsGraphSnapshots() throws Exception {
+        List<Tweet> tweets = corpus(2500);
+        List<FollowsGraph> snapshots = run(tweets, TweetFlows.followsGraph(1000));
+
+        assertEquals("expected snapshots after 1000, 2000 and 2500 tweets", 3, snapshots.size());
+        assertSameGraph(FollowsGraph.fromTweets(tweets.subList(0, 1000)), snapshots.get(0));
+        assertSameGraph(FollowsGraph.fromTweets(tweets), snapshots.get(2));
+    }
+
+    @Test
+    public void testEmptyStream() throws Exception {
+        List<Tweet> none = Collections.emptyList();
+
+        assertTrue(run(none, TweetFlows.writtenBy("alyssa")).isEmpty());
+        assertTrue(run(none, TweetFlows.mentions()).isEmpty());
+        List<FollowsGraph> snapshots = run(none, TweetFlows.followsGraph(10));
+        assertEquals("expected one empty snapshot", 1, snapshots.size());
+        assertEquals(0, snapshots.get(0).userCount());
+    }
+
+    @Test
+    public void testUpstreamErrorPropagates() throws Exception {
+        SubmissionPublisher<Tweet> source = new SubmissionPublisher<>();
+        TweetFlows.Stage<Tweet, Tweet> stage = TweetFlows.writtenBy("alyssa");
+        source.subscribe(stage);
+        CompletableFuture<Void> done = stage.consume(tweet -> { });
+        Iterator<Tweet> failing = new Iterator<Tweet>() {
+            @Override public boolean hasNext() {
+                return true;
+            }
+
+            @Override public Tweet next() {
+                throw new IllegalStateException("feed broke");
+            }
+        };
+
+        try {
+            TweetFlows.publish(failing, source);
+            fail("expected publish to rethrow");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertFailedWith(IllegalStateException.class, done);
+    }
+
+    @Test
+    public void testOperatorErrorPropagates() throws Exception {
+        SubmissionPublisher<Tweet> source = new SubmissionPublisher<>();
+        TweetFlows.Stage<Tweet, Tweet> stage = TweetFlows.inTimespan(null);
+        source.subscribe(stage);
+        CompletableFuture<Void> done = stage.consume(tweet -> { });
+        TweetFlows.publish(corpus(10).iterator(), source);
+
+        assertFailedWith(NullPointerException.class, done);
+    }
+
+    @Test
+    public void testSlowConsumerThrottlesPublisher() throws Exception {
+        int capacity = 8;
+        SubmissionPublisher<Tweet> source = new SubmissionPublisher<>(
+                ForkJoinPool.commonPool(), capacity);
+        TweetFlows.Stage<Tweet, Tweet> stage = TweetFlows.inTimespan(new Timespan(Instant.MIN, Instant.MAX));
+        source.subscribe(stage);
+        AtomicLong consumed = new AtomicLong();
+        CompletableFuture<Void> done = stage.consume(tweet -> {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            consumed.incrementAndGet();
+        });
+        AtomicLong published = new AtomicLong();
+        Iterator<Tweet> tweets = corpus(2000).iterator();
+        Iterator<Tweet> counting = new Iterator<Tweet>() {
+            @Override public boolean hasNext() {
+                return tweets.hasNext();
+            }
+
+            @Override public Tweet next() {
+                long ahead = published.incrementAndGet() - consumed.get();
+                // the source buffer, the stage's item in hand and its buffer, the consumer's item
+                assertTrue("publisher ran " + ahead + " items ahead",
+                        ahead <= capacity + 1 + stage.getMaxBufferCapacity() + 2);
+                return tweets.next();
+            }
+        };
+        TweetFlows.publish(counting, source);
+        done.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(2000, consumed.get());
+    }
+
+    private static List<Tweet> corpus(int count) {
+        return new TweetCorpusGenerator(17).withUsers(200, 1.0)
+                .withTimestamps(d1, Duration.ofSeconds(3), Duration.ofSeconds(30))
+                .tweets(count).collect(Collectors.toList());
+    }
+
+    private static <R> List<R> run(List<Tweet> tweets, TweetFlows.Stage<Tweet, R> stage)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        SubmissionPublisher<Tweet> source = new SubmissionPublisher<>();
+        source.subscribe(stage);
+        List<R> result = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<Void> done = stage.consume(result::add);
+        TweetFlows.publish(tweets.iterator(), source);
+        done.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return new ArrayList<>(result);
+    }
+
+    private static void assertFailedWith(Class<? extends Throwable> expected, CompletableFuture<Void> done)
+            throws InterruptedException, TimeoutException {
+        try {
+            done.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            fail("expected the pipeline to fail");
+        } catch (ExecutionException ee) {
+            assertTrue("expected " + expected.getSimpleName() + ", got " + ee.getCause(),
+                    expected.isInstance(ee.getCause()));
+        }
+    }
+
+    private static void assertSameIds(List<Tweet> expected, List<Tweet> actual) {
+        assertEquals(expected.stream().map(Tweet::getId).collect(Collectors.toList()),
+                actual.stream().map(Tweet::getId).collect(Collectors.toList()));
+    }
+
+    private static void assertSameGraph(FollowsGraph expected, FollowsGraph actual) {
+        assertEquals(expected.asMap(), actual.asMap());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+    }
+}
@@ -0,0 +1,145 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TweetPollerTest {
+
+    /*
+     * Testing strategy for TweetPoller:
+     * - fetch(): success, HTTP error
+     * - polling: batches in request order on the parser thread, handler
+     *   slower than the server,
+     *   failing requests followed by more polls
+     * - lifecycle: start twice, close
+     */
+
+    private static final long TIMEOUT_SECONDS = 30;
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testFetch() throws IOException, InterruptedException, ExecutionException {
+        try (LocalTweetServer server = LocalTweetServer.start(new TweetCorpusGenerator(1), 50);
+                TweetPoller poller = new TweetPoller(server.uri(), Duration.ZERO, tweets -> { }, error -> { })) {
+            List<Tweet> tweets = poller.fetch().get();
+
+            assertEquals(50, tweets.size());
+            assertEquals("expected the first tweet of the corpus", 1, tweets.get(0).getId());
+            assertEquals("expected no scheduled batch", 0, poller.batchCount());
+        }
+    }
+
+    @Test
+    public void testFetchHttpError() throws IOException, InterruptedException {
+        try (LocalTweetServer server = LocalTweetServer.start(new TweetCorpusGenerator(1), 50);
+                TweetPoller poller = new TweetPoller(missing(server), Duration.ZERO, tweets -> { }, error -> { })) {
+            poller.fetch().get();
+            fail("expected the fetch to fail");
+        } catch (ExecutionException ee) {
+            assertTrue("expected IOException, got " + ee.getCause(), ee.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testBatchesInOrder() throws IOException, InterruptedException {
+        List<Long> firstIds = Collections.synchronizedList(new ArrayList<>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch remaining = new CountDownLatch(5);
+        try (LocalTweetServer server = LocalTweetServer.start(new TweetCorpusGenerator(2), 100);
+                TweetPoller poller = new TweetPoller(server.uri(), Duration.ZERO, tweets -> {
+                    firstIds.add(tweets.get(0).getId());
+                    threads.add(Thread.currentThread().getName());
+                    remaining.countDown();
+                }, error -> { })) {
+            poller.start();
+            assertTrue("expected 5 batches", remaining.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals("expected batches in order", 1 + 100L * i, (long) firstIds.get(i));
+            assertEquals("expected delivery on the parser thread", "TweetPoller-parser", threads.get(i));
+        }
+    }
+
+    @Test
+    public void testSlowHandlerThrottlesPolling() throws IOException, InterruptedException {
+        CountDownLatch remaining = new CountDownLatch(4);
+        try (LocalTweetServer server = LocalTweetServer.start(new TweetCorpusGenerator(3), 10);
+                TweetPoller poller = new TweetPoller(server.uri(), Duration.ZERO, tweets -> {
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                    remaining.countDown();
+                }, error -> { })) {
+            poller.start();
+            assertTrue("expected 4 batches", remaining.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+            // one batch downloading and one being handled, beyond those handled
+            assertTrue("expected at most 2 batches ahead of the handler, got " + server.requestCount(),
+                    server.requestCount() <= poller.batchCount() + 2);
+        }
+    }
+
+    @Test
+    public void testFailuresReportedAndPollingContinues() throws IOException, InterruptedException {
+        CountDownLatch failures = new CountDownLatch(3);
+        try (LocalTweetServer server = LocalTweetServer.start(new TweetCorpusGenerator(4), 10);
+                TweetPoller poller = new TweetPoller(missing(server), Duration.ofMillis(10), tweets -> { },
+                        error -> failures.countDown())) {
+            poller.start();
+
+            assertTrue("expected repeated failures", failures.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertTrue(poller.failureCount() >= 3);
+            assertEquals(0, poller.batchCount());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStartTwice() throws IOException {
+        try (LocalTweetServer server = LocalTweetServer.start(new TweetCorpusGenerator(5), 10);
+                TweetPoller poller = new TweetPoller(server.uri(), Duration.ofHours(1), tweets -> { }, error -> { })) {
+            poller.start();
+            poller.start();
+        }
+    }
+
+    @Test
+    public void testCloseStopsPolling() throws IOException, InterruptedException {
+        CountDownLatch first = new CountDownLatch(1);
+        try (LocalTweetServer server = LocalTweetServer.start(new TweetCorpusGenerator(6), 10)) {
+            TweetPoller poller = new TweetPoller(server.uri(), Duration.ofMillis(50), tweets -> first.countDown(),
+                    error -> { });
+            poller.start();
+            assertTrue(first.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            poller.close();
+            Thread.sleep(100); // let a request already in flight finish
+            long served = server.requestCount();
+            Thread.sleep(300);
+
+            assertEquals("expected no requests after close", served, server.requestCount());
+        }
+    }
+
+    private static URI missing(LocalTweetServer server) {
+        return server.uri().resolve("/missing");
+    }
+}
@@ -0,0 +1,107 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TweetQueryTest {
+
+    /*
+     * Testing strategy for TweetQuery:
+     * - conditions: none, author, timespan, words, all three, repeated author
+     *   (same / different), repeated timespan (overlapping / disjoint)
+     * - input: empty list, small list, list large enough to be sampled,
+     *   non-random-access list, IndexedCorpus
+     * - results agree with chained Filter calls and keep input order
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+    private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d2);
+    private static final Tweet tweet3 = new Tweet(3, "Alyssa", "rivest talked for hours", d3);
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testAll() {
+        List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3);
+
+        assertEquals(tweets, TweetQuery.all().filter(tweets));
+        assertEquals(tweets, TweetQuery.all().filter(new IndexedCorpus(tweets)));
+        assertTrue(TweetQuery.all().filter(Collections.<Tweet>emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testCombinedConditions() {
+        List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3);
+        TweetQuery query = TweetQuery.all().writtenBy("ALYSSA").inTimespan(new Timespan(d1, d3))
+                .containing(Arrays.asList("rivest"));
+
+        assertEquals(Arrays.asList(tweet1, tweet3), query.filter(tweets));
+        assertEquals(Arrays.asList(tweet1, tweet3), query.filter(new IndexedCorpus(tweets)));
+        assertEquals(Arrays.asList(tweet1), query.containing(Arrays.asList("talk")).filter(tweets));
+        assertTrue(query.matches(tweet3));
+        assertFalse(query.matches(tweet2));
+    }
+
+    @Test
+    public void testRepeatedConditions() {
+        List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3);
+        TweetQuery alyssa = TweetQuery.all().writtenBy("alyssa");
+
+        assertEquals(Arrays.asList(tweet1, tweet3), alyssa.writtenBy("Alyssa").filter(tweets));
+        assertTrue(alyssa.writtenBy("bbitdiddle").filter(tweets).isEmpty());
+        assertTrue(alyssa.writtenBy("bbitdiddle").filter(new IndexedCorpus(tweets)).isEmpty());
+
+        TweetQuery overlap = TweetQuery.all().inTimespan(new Timespan(d1, d2)).inTimespan(new Timespan(d2, d3));
+        assertEquals(Arrays.asList(tweet2), overlap.filter(tweets));
+        TweetQuery disjoint = TweetQuery.all().inTimespan(new Timespan(d1, d1)).inTimespan(new Timespan(d2, d3));
+        assertTrue(disjoint.filter(tweets).isEmpty());
+    }
+
+    @Test
+    public void testAgreesWithChainedFilters() {
+        Random random = new Random(6005);
+        String[] words = { "rivest", "talk", "hype", "obama", "mit" };
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String text = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            Instant timestamp = d1.plusSeconds(random.nextInt(10_000));
+            tweets.add(new Tweet(i, "user" + random.nextInt(50), text, timestamp));
+        }
+        IndexedCorpus corpus = new IndexedCorpus(tweets);
+        List<Tweet> linked = new LinkedList<>(tweets);
+
+        for (int trial = 0; trial < 20; trial++) {
+            String author = "USER" + random.nextInt(60);
+            Instant start = d1.plusSeconds(random.nextInt(10_000));
+            Timespan timespan = new Timespan(start, start.plusSeconds(random.nextInt(10_000)));
+            List<String> keywords = Arrays.asList(words[random.nextInt(words.length)], "absent");
+
+            List<Tweet> expected = Filter.containing(
+                    Filter.inTimespan(Filter.writtenBy(tweets, author), timespan), keywords);
+            TweetQuery query = TweetQuery.all().containing(keywords).inTimespan(timespan).writtenBy(author);
+
+            assertEquals(query.toString(), expected, query.filter(tweets));
+            assertEquals(query.toString(), expected, query.filter(corpus));
+            assertEquals(query.toString(), expected, query.filter(linked));
+        }
+    }
+}
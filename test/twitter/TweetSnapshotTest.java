@@ -0,0 +1,205 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import org.junit.Test;
+
+public class TweetSnapshotTest {
+
+    /*
+     * Testing strategy for TweetSnapshot:
+     * - number of tweets: 0, 1, >1
+     * - authors: all distinct, repeated, same name in different case
+     * - text: empty, ASCII, multi-byte UTF-8, surrogate pairs, unpaired
+     *   surrogate (rejected)
+     * - timestamp: whole seconds, nonzero nanos, before 1970
+     * - file: not a snapshot, truncated, section offset out of range, text
+     *   offset out of order, author id out of range, nano out of range
+     * - write: more than MAX_TWEETS tweets (rejected)
+     */
+
+    // magic, version, tweet count, author count and 8 section offsets
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 8 * 8;
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        assertTrue("expected empty snapshot", roundTrip(Collections.<Tweet>emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", Instant.parse("2016-02-17T10:00:00Z")),
+                new Tweet(2, "bbitdiddle", "", Instant.parse("1969-07-20T20:17:40.123456789Z")),
+                new Tweet(-3, "Alyssa", "café ☃ 😀", Instant.parse("2016-02-17T11:00:00Z")),
+                new Tweet(Long.MAX_VALUE, "alyssa", "@bbitdiddle rivest talk", Instant.EPOCH));
+
+        List<Tweet> snapshot = roundTrip(tweets);
+
+        assertEquals("expected same size", tweets.size(), snapshot.size());
+        for (int i = 0; i < tweets.size(); i++) {
+            Tweet expected = tweets.get(i);
+            Tweet actual = snapshot.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getAuthor(), actual.getAuthor());
+            assertEquals(expected.getText(), actual.getText());
+            assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        }
+    }
+
+    @Test
+    public void testManyTweets() throws IOException {
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            tweets.add(new Tweet(i, "user" + (i % 37), "tweet number " + i, Instant.ofEpochSecond(1_455_000_000L + i)));
+        }
+
+        assertEquals("expected equal lists", tweets, roundTrip(tweets));
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotASnapshot() throws IOException {
+        Path file = Files.createTempFile("tweets", ".json");
+        try {
+            Files.write(file, "[{\"id\": 1}, {\"id\": 2}, {\"id\": 3}, {\"id\": 4}, {\"id\": 5}, {\"id\": 6}]"
+                    .getBytes(StandardCharsets.UTF_8));
+            TweetSnapshot.open(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testUnpairedSurrogateRejected() throws IOException {
+        Path file = Files.createTempFile("tweets", ".snapshot");
+        try {
+            TweetSnapshot.write(Arrays.asList(
+                    new Tweet(1, "alyssa", "broken \ud83d emoji", Instant.EPOCH)), file);
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("expected file untouched", 0, Files.size(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException {
+        corrupt(bytes -> Arrays.copyOf(bytes, bytes.length - 1));
+    }
+
+    @Test(expected = IOException.class)
+    public void testSectionOffsetOutOfRange() throws IOException {
+        // the text blob's offset, the sixth section offset in the header
+        corrupt(bytes -> {
+            ByteBuffer.wrap(bytes).putLong(20 + 8 * 5, Long.MAX_VALUE - 4);
+            return bytes;
+        });
+    }
+
+    @Test(expected = IOException.class)
+    public void testCountTooLarge() throws IOException {
+        corrupt(bytes -> {
+            ByteBuffer.wrap(bytes).putLong(8, 1L << 40);
+            return bytes;
+        });
+    }
+
+    @Test(expected = IOException.class)
+    public void testTextOffsetOutOfOrder() throws IOException {
+        // second of the three text offsets, after the header and the ids,
+        // seconds, nanos and authors columns of two tweets
+        corrupt(bytes -> {
+            ByteBuffer.wrap(bytes).putLong(HEADER_BYTES + 16 + 16 + 8 + 8 + 8, 1000);
+            return bytes;
+        });
+    }
+
+    @Test(expected = IOException.class)
+    public void testAuthorOutOfRange() throws IOException {
+        // author id of the second tweet
+        corrupt(bytes -> {
+            ByteBuffer.wrap(bytes).putInt(HEADER_BYTES + 16 + 16 + 8 + 4, 2);
+            return bytes;
+        });
+    }
+
+    @Test(expected = IOException.class)
+    public void testNanoOutOfRange() throws IOException {
+        // nano-of-second of the first tweet
+        corrupt(bytes -> {
+            ByteBuffer.wrap(bytes).putInt(HEADER_BYTES + 16 + 16, 1_000_000_000);
+            return bytes;
+        });
+    }
+
+    @Test
+    public void testTooManyTweetsRejected() throws IOException {
+        List<Tweet> huge = new AbstractList<Tweet>() {
+            @Override public Tweet get(int index) {
+                return new Tweet(index, "alyssa", "rivest talk", Instant.EPOCH);
+            }
+
+            @Override public int size() {
+                return TweetSnapshot.MAX_TWEETS + 1;
+            }
+        };
+        Path file = Files.createTempFile("tweets", ".snapshot");
+        try {
+            TweetSnapshot.write(huge, file);
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("expected file untouched", 0, Files.size(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /*
+     * Write a small snapshot, apply change to its bytes, and open it.
+     */
+    private static void corrupt(UnaryOperator<byte[]> change) throws IOException {
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "alyssa", "rivest talk", Instant.EPOCH),
+                new Tweet(2, "bbitdiddle", "@alyssa indeed", Instant.EPOCH));
+        Path file = Files.createTempFile("tweets", ".snapshot");
+        try {
+            TweetSnapshot.write(tweets, file);
+            Files.write(file, change.apply(Files.readAllBytes(file)));
+            TweetSnapshot.open(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<Tweet> roundTrip(List<Tweet> tweets) throws IOException {
+        Path file = Files.createTempFile("tweets", ".snapshot");
+        try {
+            TweetSnapshot.write(tweets, file);
+            return new ArrayList<>(TweetSnapshot.open(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.json.JsonException;
+
+import org.junit.Test;
+
+public class TweetStreamReaderTest {
+
+    /*
+     * Testing strategy for TweetStreamReader:
+     * - array length: 0, 1, >1
+     * - screen name: nested user object, flat "user.screen_name" key
+     * - extra fields: none, scalars, nested objects and arrays to be skipped
+     * - malformed input: not an array, tweet missing a required field
+     */
+
+    private static final String TWEET1 = "{\"id\": 1, \"user\": {\"screen_name\": \"alyssa\", \"followers_count\": 12},"
+            + " \"text\": \"is it reasonable to talk about rivest so much?\","
+            + " \"created_at\": \"Wed Feb 17 10:00:00 +0000 2016\"}";
+    private static final String TWEET2 = "{\"entities\": {\"hashtags\": [{\"text\": \"hype\", \"indices\": [24, 29]}]},"
+            + " \"created_at\": \"Wed Feb 17 06:00:00 -0500 2016\", \"retweeted\": false,"
+            + " \"user.screen_name\": \"bbitdiddle\", \"id\": 2, \"text\": \"rivest talk in 30 minutes #hype\"}";
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyArray() {
+        TweetStreamReader reader = new TweetStreamReader(new StringReader("[]"));
+
+        assertFalse("expected no tweets", reader.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNextPastEnd() {
+        TweetStreamReader reader = new TweetStreamReader(new StringReader("[" + TWEET1 + "]"));
+        reader.next();
+        reader.next();
+    }
+
+    @Test
+    public void testStreamSkipsUnusedFields() {
+        List<Tweet> tweets;
+        try (Stream<Tweet> stream = TweetStreamReader.streamTweets(new StringReader("[" + TWEET1 + "," + TWEET2 + "]"))) {
+            tweets = stream.collect(Collectors.toList());
+        }
+
+        assertEquals("expected two tweets", 2, tweets.size());
+        Tweet first = tweets.get(0);
+        assertEquals(1, first.getId());
+        assertEquals("alyssa", first.getAuthor());
+        assertEquals("is it reasonable to talk about rivest so much?", first.getText());
+        assertEquals(Instant.parse("2016-02-17T10:00:00Z"), first.getTimestamp());
+        Tweet second = tweets.get(1);
+        assertEquals(2, second.getId());
+        assertEquals("bbitdiddle", second.getAuthor());
+        assertEquals("rivest talk in 30 minutes #hype", second.getText());
+        assertEquals(Instant.parse("2016-02-17T11:00:00Z"), second.getTimestamp());
+    }
+
+    @Test(expected = JsonException.class)
+    public void testNotAnArray() {
+        new TweetStreamReader(new StringReader(TWEET1)).hasNext();
+    }
+
+    @Test(expected = JsonException.class)
+    public void testMissingField() {
+        new TweetStreamReader(new StringReader("[{\"id\": 3, \"text\": \"no author\"}]")).next();
+    }
+}
@@ -0,0 +1,82 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+public class UsernameTableTest {
+
+    /*
+     * Testing strategy for UsernameTable:
+     * - lookup: whole string, range of a larger text
+     * - case: same username in different case, different usernames
+     * - size: empty, enough usernames to force the table to grow
+     * - find: present, absent (must not add)
+     * - use in the reader: authors share canonical instances
+     */
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        UsernameTable table = new UsernameTable();
+
+        assertEquals(0, table.size());
+        assertEquals(-1, table.find("alyssa"));
+        assertTrue(table.names().isEmpty());
+    }
+
+    @Test
+    public void testCaseFolding() {
+        UsernameTable table = new UsernameTable();
+        int alyssa = table.id("Alyssa");
+        String text = "hey @ALYSSA and @bbitdiddle";
+
+        assertEquals("expected same id ignoring case", alyssa, table.id(text, 5, 11));
+        assertEquals("expected new id", 1, table.id(text, 17, 27));
+        assertEquals("alyssa", table.name(alyssa));
+        assertSame("expected canonical instance", table.intern("alyssa"), table.intern(text, 5, 11));
+        assertEquals(alyssa, table.find("aLySsA"));
+        assertEquals(2, table.size());
+        assertEquals(new HashSet<>(Arrays.asList("alyssa", "bbitdiddle")), table.names());
+    }
+
+    @Test
+    public void testGrowth() {
+        UsernameTable table = new UsernameTable();
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("expected dense ids", i, table.id("User_" + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("expected stable ids", i, table.id("user_" + i));
+            assertEquals("user_" + i, table.name(i));
+        }
+        assertEquals(10_000, table.size());
+    }
+
+    @Test
+    public void testReaderInternsAuthors() {
+        String json = "[{\"id\": 1, \"user\": {\"screen_name\": \"Alyssa\"}, \"text\": \"a\","
+                + " \"created_at\": \"Wed Feb 17 10:00:00 +0000 2016\"},"
+                + " {\"id\": 2, \"user\": {\"screen_name\": \"alyssa\"}, \"text\": \"b\","
+                + " \"created_at\": \"Wed Feb 17 11:00:00 +0000 2016\"}]";
+        UsernameTable table = new UsernameTable();
+        TweetStreamReader reader = new TweetStreamReader(new StringReader(json), table);
+        List<Tweet> tweets = Arrays.asList(reader.next(), reader.next());
+
+        assertEquals("alyssa", tweets.get(0).getAuthor());
+        assertSame("expected one shared author String", tweets.get(0).getAuthor(), tweets.get(1).getAuthor());
+        assertEquals(1, table.size());
+    }
+}
@@ -0,0 +1,180 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class WindowedInfluenceTest {
+
+    /*
+     * Testing strategy for WindowedInfluence:
+     * - stream: empty, in time order, out of order, older than the window
+     * - edges: new, mentioned again (refreshes weight, counts once),
+     *   self-mentions, expired by a later tweet or by advanceTo()
+     * - decay: one half-life, many half-lives (forces rebasing), window of
+     *   MAX_HALF_LIVES half-lives (oldest edge still nonzero), longer (rejected),
+     *   a gap of most of such a window in one step (rebases by a huge factor)
+     * - influencers: k = 0, k < users, ties
+     * - scores agree with a direct recomputation from all mentions
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Duration HOUR = Duration.ofHours(1);
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        WindowedInfluence influence = new WindowedInfluence(HOUR, MINUTE);
+
+        assertNull(influence.now());
+        assertTrue(influence.influencers(10).isEmpty());
+        assertEquals(0, influence.score("alyssa"), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroWindow() {
+        new WindowedInfluence(Duration.ZERO, MINUTE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowTooLongForHalfLife() {
+        new WindowedInfluence(MINUTE.multipliedBy(WindowedInfluence.MAX_HALF_LIVES).plusSeconds(1), MINUTE);
+    }
+
+    @Test
+    public void testLongestWindowKeepsOldestEdge() {
+        Duration window = MINUTE.multipliedBy(WindowedInfluence.MAX_HALF_LIVES);
+        WindowedInfluence influence = new WindowedInfluence(window, MINUTE);
+        influence.addTweets(Arrays.asList(
+                new Tweet(1, "alyssa", "@bert", d1),
+                new Tweet(2, "ernie", "@bbitdiddle", d1.plus(window))));
+
+        assertEquals(2, influence.activeEdgeCount());
+        assertTrue("expected a nonzero weight, got " + influence.score("bert"), influence.score("bert") > 0);
+        assertEquals(1.0, influence.score("bert") / Math.pow(2, -WindowedInfluence.MAX_HALF_LIVES), 1e-9);
+        assertEquals(Arrays.asList("bbitdiddle", "bert"), influence.influencers(5));
+    }
+
+    @Test
+    public void testDecayAndExpiry() {
+        WindowedInfluence influence = new WindowedInfluence(HOUR, MINUTE);
+        influence.addTweets(Arrays.asList(
+                new Tweet(1, "alyssa", "@bert @ALYSSA", d1),
+                new Tweet(2, "ernie", "@bert @bbitdiddle", d1.plus(MINUTE))));
+
+        assertEquals(d1.plus(MINUTE), influence.now());
+        assertEquals(1.5, influence.score("bert"), 1e-9);
+        assertEquals(1.0, influence.score("BBitDiddle"), 1e-9);
+        assertEquals(0, influence.score("alyssa"), 0);
+        assertEquals(Arrays.asList("bert", "bbitdiddle"), influence.influencers(5));
+
+        // alyssa mentions bert again: the edge is refreshed, not counted twice
+        influence.addTweets(Arrays.asList(new Tweet(3, "alyssa", "@bert", d1.plus(MINUTE))));
+        assertEquals(2.0, influence.score("bert"), 1e-9);
+
+        influence.advanceTo(d1.plus(HOUR).plus(MINUTE).plusSeconds(1));
+        assertEquals("expected every edge expired", 0, influence.activeEdgeCount());
+        assertTrue(influence.influencers(5).isEmpty());
+    }
+
+    @Test
+    public void testRebaseAcrossLongGap() {
+        Duration window = MINUTE.multipliedBy(WindowedInfluence.MAX_HALF_LIVES);
+        WindowedInfluence influence = new WindowedInfluence(window, MINUTE);
+        List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "alyssa", "@x", d1),
+                new Tweet(2, "bbitdiddle", "@bert", d1.plus(MINUTE.multipliedBy(432))),
+                new Tweet(3, "cookie", "@ernie", d1.plus(MINUTE.multipliedBy(1432))));
+        for (Tweet tweet : tweets) {
+            influence.addTweets(Collections.singletonList(tweet));
+        }
+
+        assertEquals(2, influence.activeEdgeCount());
+        Map<String, Double> expected = recompute(tweets, influence.now(), window, MINUTE);
+        assertEquals(2, expected.size());
+        for (Map.Entry<String, Double> entry : expected.entrySet()) {
+            double actual = influence.score(entry.getKey());
+            assertTrue("expected a nonzero weight for " + entry.getKey(), actual > 0);
+            assertEquals(entry.getKey(), 1.0, actual / entry.getValue(), 1e-9);
+        }
+        assertEquals(Arrays.asList("ernie", "bert"), influence.influencers(5));
+    }
+
+    @Test
+    public void testMatchesRecomputation() {
+        Random random = new Random(6005);
+        Duration window = Duration.ofMinutes(30);
+        Duration halfLife = Duration.ofSeconds(20); // rebases every few minutes
+        WindowedInfluence influence = new WindowedInfluence(window, halfLife);
+        List<Tweet> all = new ArrayList<>();
+        Instant time = d1;
+        for (int i = 0; i < 5_000; i++) {
+            time = time.plusSeconds(random.nextInt(3));
+            Instant stamp = time.minusSeconds(random.nextInt(5)); // slightly out of order
+            String text = "@user" + random.nextInt(20) + " @user" + random.nextInt(200);
+            Tweet tweet = new Tweet(i, "user" + random.nextInt(200), text, stamp);
+            all.add(tweet);
+            influence.addTweets(Collections.singletonList(tweet));
+        }
+
+        Map<String, Double> expected = recompute(all, influence.now(), window, halfLife);
+        for (Map.Entry<String, Double> entry : expected.entrySet()) {
+            assertEquals(entry.getKey(), entry.getValue(), influence.score(entry.getKey()), 1e-9);
+        }
+        List<String> top = influence.influencers(10);
+        for (int i = 1; i < top.size(); i++) {
+            assertTrue("expected descending scores", influence.score(top.get(i - 1)) >= influence.score(top.get(i)));
+        }
+        assertTrue(influence.influencers(0).isEmpty());
+    }
+
+    /*
+     * Influence from scratch: for each edge, decay from its latest mention
+     * within the window.
+     */
+    private static Map<String, Double> recompute(List<Tweet> tweets, Instant now, Duration window,
+            Duration halfLife) {
+        Map<String, Instant> latest = new HashMap<>();
+        Instant cutoff = now.minus(window);
+        for (Tweet tweet : tweets) {
+            if (tweet.getTimestamp().isBefore(cutoff)) {
+                continue;
+            }
+            for (String word : tweet.getText().split(" ")) {
+                String mentioned = word.substring(1).toLowerCase();
+                if (!mentioned.equals(tweet.getAuthor().toLowerCase())) {
+                    String edge = tweet.getAuthor().toLowerCase() + " " + mentioned;
+                    Instant previous = latest.get(edge);
+                    if (previous == null || previous.isBefore(tweet.getTimestamp())) {
+                        latest.put(edge, tweet.getTimestamp());
+                    }
+                }
+            }
+        }
+        Map<String, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Instant> entry : latest.entrySet()) {
+            String followee = entry.getKey().split(" ")[1];
+            double age = Duration.between(entry.getValue(), now).toNanos() / (double) halfLife.toNanos();
+            scores.merge(followee, Math.pow(2, -age), Double::sum);
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,96 @@
+/* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class WordIndexTest {
+
+    /*
+     * Testing strategy for WordIndex:
+     * - corpus: empty, small, large enough for dense unions
+     * - query words: none, one, many, absent, different case, repeated
+     * - matching: whole words only ("talk" does not match "talked"),
+     *   punctuation is part of a word, words separated by tabs and newlines
+     * - results in corpus order, each tweet at most once
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d1);
+    private static final Tweet tweet3 = new Tweet(3, "alyssa", "Rivest\ttalked\nfor HOURS", d1);
+
+    @Test(expected = AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyCorpus() {
+        WordIndex index = new WordIndex(Collections.<Tweet>emptyList());
+
+        assertTrue(index.containing(Arrays.asList("talk")).isEmpty());
+    }
+
+    @Test
+    public void testWholeWordsIgnoringCase() {
+        WordIndex index = new WordIndex(Arrays.asList(tweet1, tweet2, tweet3));
+
+        assertEquals(Arrays.asList(tweet1, tweet2), index.containing(Arrays.asList("TALK")));
+        assertEquals(Arrays.asList(tweet1, tweet2, tweet3), index.containing(Arrays.asList("rivest", "RIVEST")));
+        assertEquals(Arrays.asList(tweet2, tweet3), index.containing(Arrays.asList("hours", "#hype")));
+        assertTrue(index.containing(Arrays.asList("much", "hype", "30minutes")).isEmpty());
+        assertTrue(index.containing(Collections.<String>emptyList()).isEmpty());
+        assertEquals(3, index.postingCount(Arrays.asList("rivest")));
+    }
+
+    @Test
+    public void testMatchesWholeWordReference() {
+        Random random = new Random(6005);
+        String[] vocabulary = { "rivest", "Talk", "hype", "obama", "mit", "6.005", "a", "the" };
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = random.nextInt(6); w > 0; w--) {
+                text.append(vocabulary[random.nextInt(vocabulary.length)]).append(random.nextBoolean() ? " " : "  ");
+            }
+            tweets.add(new Tweet(i, "user" + (i % 10), text.toString(), d1));
+        }
+        WordIndex index = new WordIndex(tweets);
+
+        for (List<String> words : Arrays.asList(Arrays.asList("obama"), Arrays.asList("OBAMA", "mit"),
+                Arrays.asList("a", "the", "talk"), Arrays.asList("nothing"))) {
+            assertEquals(words.toString(), reference(tweets, words), index.containing(words));
+        }
+    }
+
+    /*
+     * Whole-word, case-insensitive containing, straight from the spec.
+     */
+    private static List<Tweet> reference(List<Tweet> tweets, List<String> words) {
+        List<Tweet> result = new ArrayList<>();
+        for (Tweet tweet : tweets) {
+            boolean found = false;
+            for (String textWord : tweet.getText().split("\\s+")) {
+                for (String word : words) {
+                    found |= !textWord.isEmpty() && textWord.equalsIgnoreCase(word);
+                }
+            }
+            if (found) {
+                result.add(tweet);
+            }
+        }
+        return result;
+    }
+}